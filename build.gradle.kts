@@ -2,6 +2,7 @@ plugins {
     java
     id("fabric-loom") version "0.7-SNAPSHOT"
     id("com.github.ben-manes.versions") version "0.39.0"
+    id("me.champeau.jmh") version "0.6.5"
 }
 
 val minecraftVersion = "1.16.5"
@@ -10,6 +11,7 @@ val fabricLoaderVersion = "0.11.1"
 val fabricApiVersion = "0.31.0+1.16"
 val modmenuVersion = "1.16.8"
 val multiconnectVersion = "1.3.36"
+val jmhCoreVersion = "1.32"
 
 group = "com.mumfrey.worldeditcui"
 version = "$minecraftVersion+03-SNAPSHOT"
@@ -23,6 +25,7 @@ repositories {
         name = "stellardriftReleases"
 	mavenContent { releasesOnly() }
     }
+    mavenCentral() // jmh
 }
 
 val targetVersion = 8
@@ -57,6 +60,40 @@ dependencies {
     runtimeOnly("net.minecraftforge:forgeflower:latest.release")
 }
 
+// Benchmarks run headless against the mapped game classes, see src/jmh
+sourceSets.named("jmh") {
+    compileClasspath += sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().runtimeClasspath
+}
+
+jmh {
+    jmhVersion.set(jmhCoreVersion)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    // eg. ./gradlew jmh -PjmhIncludes=EllipsoidTessellation
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
+// Draws a fixed scene headless and fails if a frame allocates more than RenderProfiler.ALLOCATION_BUDGET
+val checkRenderAllocation by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Checks that drawing selections which do not change does not allocate"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.mumfrey.worldeditcui.event.listeners.RenderAllocationCheck")
+}
+
+// Transcodes every benchmark message mix to the binary protocol and fails unless it decodes to the same events
+val checkProtocolRoundTrip by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Checks that binary CUI payloads decode to the same events as the text messages"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.mumfrey.worldeditcui.event.listeners.ProtocolRoundTrip")
+}
+
+tasks.check {
+    dependsOn(checkRenderAllocation, checkProtocolRoundTrip)
+}
+
 tasks.withType(net.fabricmc.loom.task.AbstractRunTask::class).configureEach {
     // Midxin debug options
     jvmArgs(
@@ -0,0 +1,249 @@
+package com.mumfrey.worldeditcui.event;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes CUI events in the binary format, see {@link CUIBinaryProtocol}. The
+ * client never sends events, so this is not part of the mod: it stands in for
+ * the server in the benchmarks and round trip checks by transcoding streams
+ * of text messages with {@link #write}, and is a reference for server
+ * implementations.
+ *
+ * <p>Integer fields are written as deltas from their base, the previous
+ * vertex of a batch or the previous record of the same event type, whenever
+ * that is shorter.</p>
+ */
+public final class CUIBinaryWriter
+{
+	private static final CUIEventType[] TYPES = CUIEventType.values();
+
+	private final long[][] previous = new long[CUIBinaryWriter.TYPES.length][];
+	private final CUIMessage reader = new CUIMessage();
+
+	private ByteBuf payload;
+	private CUIEventType type;
+	private int stride, field, count;
+	private int records;
+	private final int[] kinds = new int[CUIBinaryProtocol.KIND_MASK + 1];
+
+	public CUIBinaryWriter()
+	{
+		for (int type = 0; type < this.previous.length; type++)
+		{
+			this.previous[type] = new long[8];
+		}
+		this.reset();
+	}
+
+	private void reset()
+	{
+		this.payload = Unpooled.buffer();
+		this.payload.writeByte(CUIBinaryProtocol.MARKER);
+		this.writeVarint(CUIBinaryProtocol.VERSION);
+		for (long[] fields : this.previous)
+		{
+			Arrays.fill(fields, 0L);
+		}
+		this.type = null;
+		this.records = 0;
+	}
+
+	/**
+	 * Number of records written to the current payload
+	 */
+	public int getRecordCount()
+	{
+		return this.records;
+	}
+
+	/**
+	 * Number of fields of a kind written since this writer was created
+	 */
+	public int getFieldCount(int kind)
+	{
+		return this.kinds[kind];
+	}
+
+	/**
+	 * Start a record, it must be followed by exactly as many fields as
+	 * specified
+	 */
+	public CUIBinaryWriter begin(CUIEventType type, boolean multi, int fieldCount)
+	{
+		this.checkComplete();
+		if (fieldCount < 0 || fieldCount > type.getMaxParameters())
+		{
+			throw new IllegalArgumentException("Invalid field count " + fieldCount + " for " + type.getName() + " event");
+		}
+
+		this.writeVarint(((long)type.getBinaryId() << 1) | (multi ? 1 : 0));
+		this.writeVarint(fieldCount);
+		int stride = CUIBinaryProtocol.getStride(type);
+		if (this.previous[type.ordinal()].length < Math.min(fieldCount, stride))
+		{
+			this.previous[type.ordinal()] = Arrays.copyOf(this.previous[type.ordinal()], Math.min(fieldCount, stride));
+		}
+
+		this.type = type;
+		this.stride = stride;
+		this.field = 0;
+		this.count = fieldCount;
+		this.records++;
+		return this;
+	}
+
+	public CUIBinaryWriter writeInt(int value)
+	{
+		long[] previous = this.previous[this.nextField().ordinal()];
+		int base = this.field % this.stride;
+		long absolute = CUIBinaryProtocol.zigZag(value);
+		long delta = CUIBinaryProtocol.zigZag((long)value - previous[base]);
+		if (Long.compareUnsigned(delta, absolute) < 0)
+		{
+			this.writeTag(delta, CUIBinaryProtocol.DELTA);
+		}
+		else
+		{
+			this.writeTag(absolute, CUIBinaryProtocol.INT);
+		}
+
+		previous[base] = value;
+		this.field++;
+		return this;
+	}
+
+	/**
+	 * Write a number, as an integer if it is a whole number
+	 */
+	public CUIBinaryWriter writeDouble(double value)
+	{
+		if (value == (int)value)
+		{
+			return this.writeInt((int)value);
+		}
+
+		this.nextField();
+		this.writeTag(0, CUIBinaryProtocol.DOUBLE);
+		this.payload.writeDouble(value);
+		this.field++;
+		return this;
+	}
+
+	public CUIBinaryWriter writeString(String value)
+	{
+		this.nextField();
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		this.writeTag(bytes.length, CUIBinaryProtocol.STRING);
+		this.payload.writeBytes(bytes);
+		this.field++;
+		return this;
+	}
+
+	/**
+	 * Transcode a text message into a record. Fields which are plain decimal
+	 * numbers are written as numbers, any others as strings.
+	 *
+	 * @throws IllegalArgumentException if the message is not a known event
+	 */
+	public CUIBinaryWriter write(String message)
+	{
+		CUIMessage text = this.reader.read(message);
+		CUIEventType type = CUIEventType.of(text);
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Unknown CUI event " + text.getKey());
+		}
+
+		this.begin(type, text.isMulti(), text.getFieldCount());
+		for (int i = 0; i < text.getFieldCount(); i++)
+		{
+			String field = text.getString(i);
+			if (CUIBinaryWriter.isDecimal(field))
+			{
+				this.writeDouble(text.getDouble(i));
+			}
+			else
+			{
+				this.writeString(field);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Get the payload written so far and start a new one
+	 */
+	public ByteBuf finish()
+	{
+		this.checkComplete();
+		ByteBuf payload = this.payload;
+		this.reset();
+		return payload;
+	}
+
+	private CUIEventType nextField()
+	{
+		if (this.type == null || this.field >= this.count)
+		{
+			throw new IllegalStateException("No field left to write in the current record");
+		}
+		return this.type;
+	}
+
+	private void checkComplete()
+	{
+		if (this.type != null && this.field < this.count)
+		{
+			throw new IllegalStateException("Record for " + this.type.getName() + " event has " + this.field + " of " + this.count + " fields");
+		}
+	}
+
+	private void writeTag(long value, int kind)
+	{
+		this.writeVarint((value << CUIBinaryProtocol.KIND_BITS) | kind);
+		this.kinds[kind]++;
+	}
+
+	private void writeVarint(long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			this.payload.writeByte((int)(value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		this.payload.writeByte((int)value);
+	}
+
+	/**
+	 * Get whether text is a plain decimal number, an optional minus sign and
+	 * digits with at most one decimal point
+	 */
+	public static boolean isDecimal(String text)
+	{
+		int start = text.startsWith("-") ? 1 : 0;
+		boolean digits = false, point = false;
+		for (int i = start; i < text.length(); i++)
+		{
+			char c = text.charAt(i);
+			if (c == '.' && !point)
+			{
+				point = true;
+			}
+			else if (c >= '0' && c <= '9')
+			{
+				digits = true;
+			}
+			else
+			{
+				return false;
+			}
+		}
+
+		return digits;
+	}
+}
@@ -0,0 +1,131 @@
+package com.mumfrey.worldeditcui.event.listeners;
+
+import com.mumfrey.worldeditcui.event.CUIBinaryWriter;
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Compares the text and binary protocols by replaying the same message mixes
+ * as {@link ProtocolIngestBenchmark} in either format. {@link CUIBinaryWriter}
+ * stands in for the server: it transcodes the text messages, packing the
+ * messages between selection changes into one payload. The binary payloads
+ * are checked against the text messages with {@link ProtocolRoundTrip}
+ * before anything is measured.
+ *
+ * <p>Each operation replays the whole stream, so the two formats are
+ * comparable. The total payload size of each format is reported alongside
+ * the timings as the "bytesPerOp" counter.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProtocolFormatBenchmark
+{
+	@Param({ "polygon", "polyhedron" })
+	public String mix;
+
+	@Param({ "text", "binary" })
+	public String format;
+
+	private CUIListenerChannel listener;
+	private Consumer<CUIEvent> raise;
+	private ByteBuf[] payloads;
+	private int bytes;
+
+	@Setup
+	public void setup()
+	{
+		ProtocolIngestBenchmark.HeadlessController controller = new ProtocolIngestBenchmark.HeadlessController();
+		controller.clear();
+		this.listener = new CUIListenerChannel(controller);
+		this.listener.setBinaryProtocol(true);
+		this.raise = controller.getDispatcher()::raiseEvent;
+
+		List<String> messages = ProtocolIngestBenchmark.messages(this.mix);
+		List<ByteBuf> payloads;
+		if ("binary".equals(this.format))
+		{
+			payloads = ProtocolRoundTrip.transcode(new CUIBinaryWriter(), messages);
+			ProtocolRoundTrip.verify(messages, payloads);
+		}
+		else
+		{
+			payloads = new ArrayList<>();
+			for (String message : messages)
+			{
+				payloads.add(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)));
+			}
+		}
+
+		this.payloads = payloads.toArray(new ByteBuf[0]);
+
+		this.bytes = 0;
+		for (ByteBuf payload : this.payloads)
+		{
+			this.bytes += payload.readableBytes();
+		}
+	}
+
+	@Benchmark
+	public int replay(Traffic traffic)
+	{
+		int events = 0;
+		for (ByteBuf payload : this.payloads)
+		{
+			events += this.listener.decode(payload, this.raise);
+		}
+		traffic.add(this.bytes);
+		return events;
+	}
+
+	/**
+	 * Counts the payload bytes decoded during each iteration
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Traffic
+	{
+		private long bytes, operations;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			this.bytes = 0;
+			this.operations = 0;
+		}
+
+		void add(int bytes)
+		{
+			this.bytes += bytes;
+			this.operations++;
+		}
+
+		public long bytesPerOp()
+		{
+			return this.operations > 0 ? this.bytes / this.operations : 0;
+		}
+	}
+}
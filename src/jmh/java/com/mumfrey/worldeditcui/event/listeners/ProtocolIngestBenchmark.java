@@ -0,0 +1,265 @@
+package com.mumfrey.worldeditcui.event.listeners;
+
+import com.mumfrey.worldeditcui.WorldEditCUI;
+import com.mumfrey.worldeditcui.config.CUIConfiguration;
+import com.mumfrey.worldeditcui.debug.CUIDebug;
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.event.CUIEventDispatcher;
+import com.mumfrey.worldeditcui.render.CUISelectionProvider;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Feeds synthetic CUI message streams through the same path as messages from
+ * the server: the payload is decoded from a {@link ByteBuf} into an event by
+ * {@link CUIListenerChannel#decode}, as in
+ * <tt>FabricModWorldEditCUI.onPluginMessage</tt>, and the event is raised
+ * through the dispatcher. Both halves run on the benchmark thread, the hop
+ * onto the client thread is not included.
+ *
+ * <p>Each operation is one message, so the throughput is in messages per
+ * second and the GC profiler's normalised allocation rate is the allocation
+ * per message. Every stream starts with a selection message, so replaying a
+ * stream from the start always begins from a fresh region.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProtocolIngestBenchmark
+{
+	/**
+	 * Message mix to replay
+	 * <ul>
+	 *   <li>cuboid: cuboid selections, two points each</li>
+	 *   <li>polygon: 2D polygons of 16 points with their height bounds</li>
+	 *   <li>polyhedron: one burst of 512 vertices and 960 faces</li>
+	 *   <li>batched: the same polyhedron sent as batch events of 64
+	 *   vertices or faces each</li>
+	 *   <li>multi: eight coloured multi-selection cuboids</li>
+	 * </ul>
+	 */
+	@Param({ "cuboid", "polygon", "polyhedron", "batched", "multi" })
+	public String mix;
+
+	@Param({ "false", "true" })
+	public boolean debug;
+
+	private HeadlessController controller;
+	private CUIListenerChannel listener;
+	private Consumer<CUIEvent> raise;
+	private ByteBuf[] payloads;
+	private int next;
+
+	@Setup
+	public void setup()
+	{
+		this.controller = new HeadlessController();
+		this.controller.getConfiguration().setDebugMode(this.debug);
+		this.controller.clear();
+		this.listener = new CUIListenerChannel(this.controller);
+		this.raise = this.controller.getDispatcher()::raiseEvent;
+
+		List<String> messages = ProtocolIngestBenchmark.messages(this.mix);
+		this.payloads = new ByteBuf[messages.size()];
+		for (int i = 0; i < this.payloads.length; i++)
+		{
+			this.payloads[i] = Unpooled.wrappedBuffer(messages.get(i).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Benchmark
+	public void ingest()
+	{
+		ByteBuf data = this.payloads[this.next];
+		this.next = this.next + 1 < this.payloads.length ? this.next + 1 : 0;
+
+		this.listener.decode(data, this.raise);
+	}
+
+	/**
+	 * Build the messages of a message mix
+	 */
+	static List<String> messages(String mix)
+	{
+		List<String> messages = new ArrayList<>();
+		switch (mix)
+		{
+			case "cuboid": ProtocolIngestBenchmark.cuboids(messages); break;
+			case "polygon": ProtocolIngestBenchmark.polygons(messages); break;
+			case "polyhedron": ProtocolIngestBenchmark.polyhedron(messages); break;
+			case "batched": ProtocolIngestBenchmark.batched(messages); break;
+			case "multi": ProtocolIngestBenchmark.multi(messages); break;
+			default: throw new IllegalArgumentException("Unknown message mix " + mix);
+		}
+		return messages;
+	}
+
+	private static void cuboids(List<String> messages)
+	{
+		for (int i = 0; i < 64; i++)
+		{
+			messages.add("s|cuboid");
+			messages.add(String.format(Locale.ROOT, "p|0|%d|%d|%d|%d", i * 16, 60 + (i & 7), -i * 8, 1));
+			messages.add(String.format(Locale.ROOT, "p|1|%d|%d|%d|%d", i * 16 + 24, 80 - (i & 7), -i * 8 + 12, 6825));
+		}
+	}
+
+	private static void polygons(List<String> messages)
+	{
+		for (int i = 0; i < 16; i++)
+		{
+			messages.add("s|polygon2d");
+			for (int point = 0; point < 16; point++)
+			{
+				double theta = point * Math.PI * 2.0 / 16;
+				messages.add(String.format(Locale.ROOT, "p2|%d|%d|%d|%d", point, (int)(Math.cos(theta) * 48) + i * 128, (int)(Math.sin(theta) * 48), 7200));
+			}
+			messages.add(String.format(Locale.ROOT, "mm|%d|%d", 40 + i, 90));
+		}
+	}
+
+	private static void polyhedron(List<String> messages)
+	{
+		final int rings = 16, segments = 32;
+
+		messages.add("s|polyhedron");
+		for (int ring = 0; ring < rings; ring++)
+		{
+			for (int segment = 0; segment < segments; segment++)
+			{
+				double theta = segment * Math.PI * 2.0 / segments;
+				messages.add(String.format(Locale.ROOT, "p|%d|%d|%d|%d|%d", ring * segments + segment, (int)(Math.cos(theta) * 64), 64 + ring * 4, (int)(Math.sin(theta) * 64), 0));
+			}
+		}
+
+		for (int ring = 0; ring < rings - 1; ring++)
+		{
+			for (int segment = 0; segment < segments; segment++)
+			{
+				int a = ring * segments + segment;
+				int b = ring * segments + (segment + 1) % segments;
+				messages.add(String.format(Locale.ROOT, "poly|%d|%d|%d", a, b, a + segments));
+				messages.add(String.format(Locale.ROOT, "poly|%d|%d|%d", b, b + segments, a + segments));
+			}
+		}
+	}
+
+	private static void batched(List<String> messages)
+	{
+		final int batchSize = 64;
+		List<String> single = new ArrayList<>();
+		ProtocolIngestBenchmark.polyhedron(single);
+
+		messages.add(single.get(0));
+		StringBuilder vertices = new StringBuilder(), faces = new StringBuilder();
+		int vertexCount = 0, faceCount = 0;
+		for (String message : single.subList(1, single.size()))
+		{
+			String[] fields = message.split("\\|");
+			if ("p".equals(fields[0]))
+			{
+				vertices.append(vertices.length() == 0 ? "ps" : "").append('|').append(fields[1]).append('|').append(fields[2]).append('|').append(fields[3]).append('|').append(fields[4]);
+				if (++vertexCount % batchSize == 0)
+				{
+					messages.add(vertices.toString());
+					vertices.setLength(0);
+				}
+			}
+			else
+			{
+				if (vertices.length() > 0)
+				{
+					messages.add(vertices.toString());
+					vertices.setLength(0);
+				}
+
+				faces.append(faces.length() == 0 ? "polys" : "").append('|').append(fields.length - 1);
+				for (int i = 1; i < fields.length; i++)
+				{
+					faces.append('|').append(fields[i]);
+				}
+				if (++faceCount % batchSize == 0)
+				{
+					messages.add(faces.toString());
+					faces.setLength(0);
+				}
+			}
+		}
+
+		if (faces.length() > 0)
+		{
+			messages.add(faces.toString());
+		}
+	}
+
+	private static void multi(List<String> messages)
+	{
+		messages.add("+s|clear");
+		for (int i = 0; i < 8; i++)
+		{
+			UUID id = new UUID(0x5745435549L, i);
+			messages.add("+s|cuboid|" + id);
+			messages.add(String.format(Locale.ROOT, "+col|#%1$06xcc|#%1$06xcc|#%1$06xcc|#%1$06xcc", 0x102030 * (i + 1)));
+			messages.add(String.format(Locale.ROOT, "+p|0|%d|%d|%d|%d", i * 32, 64, 0, 1));
+			messages.add(String.format(Locale.ROOT, "+p|1|%d|%d|%d|%d", i * 32 + 16, 72, 16, 2601));
+		}
+	}
+
+	/**
+	 * Controller with just the parts used by the event handlers, and without
+	 * the game client or a configuration file
+	 */
+	static final class HeadlessController extends WorldEditCUI
+	{
+		private final CUIConfiguration configuration = new CUIConfiguration();
+		private final CUIDebug debugger = new CUIDebug(this);
+		private final CUIEventDispatcher dispatcher = new CUIEventDispatcher(this);
+		private final CUISelectionProvider selectionProvider = new CUISelectionProvider(this);
+
+		@Override
+		public CUIConfiguration getConfiguration()
+		{
+			return this.configuration;
+		}
+
+		@Override
+		public CUIDebug getDebugger()
+		{
+			return this.debugger;
+		}
+
+		@Override
+		public CUIEventDispatcher getDispatcher()
+		{
+			return this.dispatcher;
+		}
+
+		@Override
+		public CUISelectionProvider getSelectionProvider()
+		{
+			return this.selectionProvider;
+		}
+	}
+}
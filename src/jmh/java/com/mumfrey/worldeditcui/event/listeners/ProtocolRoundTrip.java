@@ -0,0 +1,178 @@
+package com.mumfrey.worldeditcui.event.listeners;
+
+import com.mumfrey.worldeditcui.event.CUIBinaryProtocol;
+import com.mumfrey.worldeditcui.event.CUIBinaryReader;
+import com.mumfrey.worldeditcui.event.CUIBinaryWriter;
+import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks that the binary protocol carries exactly what the text protocol
+ * does. Each message is transcoded by {@link CUIBinaryWriter}, read back by
+ * {@link CUIBinaryReader} and compared with the same message parsed as text:
+ * the event type, the multi flag and every field must match.
+ *
+ * <p>{@link ProtocolFormatBenchmark} checks its own stream before measuring,
+ * {@link #main} checks every {@link ProtocolIngestBenchmark} mix along with
+ * some messages with fractional and text fields, and fails unless every kind
+ * of field was written.</p>
+ */
+public final class ProtocolRoundTrip
+{
+	private static final String[] MIXES = { "cuboid", "polygon", "polyhedron", "batched", "multi" };
+
+	/**
+	 * Messages with fields which are not whole numbers
+	 */
+	private static final List<String> SHAPES = Arrays.asList(
+		"s|ellipsoid",
+		"e|0|-120|64|300",
+		"e|1|2.5|-3.75|1000.125",
+		"s|cylinder",
+		"cyl|-100|64|-2000000000|12.5|0.125",
+		"mm|-64|320",
+		"grid|1.5|cull",
+		"u|true",
+		"+s|polyhedron|" + new UUID(0x5745435549L, 99),
+		"+p|0|~|~|~|12.5",
+		"+ps|0|-30000000|-64|30000000|1|-29999999|-63|29999999",
+		"+p2s|0|-7|3|1|-8|4|2|-9|5",
+		"+polys|3|0|1|2|4|0|1|2|3"
+	);
+
+	private ProtocolRoundTrip()
+	{
+	}
+
+	/**
+	 * Transcode messages into binary payloads, packing the messages between
+	 * selection changes into one payload as a server would
+	 */
+	static List<ByteBuf> transcode(CUIBinaryWriter writer, List<String> messages)
+	{
+		List<ByteBuf> payloads = new ArrayList<>();
+		for (String message : messages)
+		{
+			if (message.startsWith("s|") && writer.getRecordCount() > 0)
+			{
+				payloads.add(writer.finish());
+			}
+			writer.write(message);
+		}
+		payloads.add(writer.finish());
+		return payloads;
+	}
+
+	/**
+	 * Check that binary payloads decode to the same records as the messages
+	 * they were transcoded from
+	 *
+	 * @throws IllegalStateException on the first record which differs
+	 */
+	static void verify(List<String> messages, List<ByteBuf> payloads)
+	{
+		CUIBinaryReader reader = new CUIBinaryReader();
+		CUIMessage binary = new CUIMessage(), text = new CUIMessage();
+		Iterator<String> expected = messages.iterator();
+		for (ByteBuf payload : payloads)
+		{
+			reader.begin(payload);
+			while (reader.next(binary))
+			{
+				if (!expected.hasNext())
+				{
+					throw new IllegalStateException("Extra record " + binary.getMessage());
+				}
+
+				String message = expected.next();
+				String difference = ProtocolRoundTrip.compare(text.read(message), binary);
+				if (difference != null)
+				{
+					throw new IllegalStateException("Different " + difference + " in " + message + ", decoded as " + binary.getMessage());
+				}
+			}
+		}
+
+		if (expected.hasNext())
+		{
+			throw new IllegalStateException("No record for " + expected.next());
+		}
+	}
+
+	/**
+	 * @return what differs between the messages, or null if they match
+	 */
+	private static String compare(CUIMessage text, CUIMessage binary)
+	{
+		if (CUIEventType.of(text) != CUIEventType.of(binary))
+		{
+			return "event type";
+		}
+
+		if (text.isMulti() != binary.isMulti())
+		{
+			return "multi flag";
+		}
+
+		if (text.getFieldCount() != binary.getFieldCount())
+		{
+			return "field count";
+		}
+
+		for (int i = 0; i < text.getFieldCount(); i++)
+		{
+			String field = text.getString(i);
+			boolean same = CUIBinaryWriter.isDecimal(field)
+					? text.getDouble(i) == binary.getDouble(i) && text.getInt(i) == binary.getInt(i)
+					: binary.isField(i, field) && field.equals(binary.getString(i));
+			if (!same)
+			{
+				return "field " + i;
+			}
+		}
+
+		return null;
+	}
+
+	public static void main(String[] args)
+	{
+		CUIBinaryWriter writer = new CUIBinaryWriter();
+		List<String> names = new ArrayList<>(Arrays.asList(ProtocolRoundTrip.MIXES));
+		names.add("shapes");
+
+		for (String name : names)
+		{
+			List<String> messages = "shapes".equals(name) ? ProtocolRoundTrip.SHAPES : ProtocolIngestBenchmark.messages(name);
+			List<ByteBuf> payloads = ProtocolRoundTrip.transcode(writer, messages);
+			ProtocolRoundTrip.verify(messages, payloads);
+
+			int textBytes = 0, binaryBytes = 0;
+			for (String message : messages)
+			{
+				textBytes += message.getBytes(StandardCharsets.UTF_8).length;
+			}
+			for (ByteBuf payload : payloads)
+			{
+				binaryBytes += payload.readableBytes();
+			}
+			System.out.printf("%s: %d messages, %d bytes as text, %d bytes in %d binary payloads%n", name, messages.size(), textBytes, binaryBytes, payloads.size());
+		}
+
+		String[] kinds = { "INT", "DELTA", "STRING", "DOUBLE" };
+		for (int kind = CUIBinaryProtocol.INT; kind <= CUIBinaryProtocol.DOUBLE; kind++)
+		{
+			if (writer.getFieldCount(kind) == 0)
+			{
+				throw new IllegalStateException("No " + kinds[kind] + " fields were written");
+			}
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.mumfrey.worldeditcui.event.listeners;
+
+import com.mumfrey.worldeditcui.debug.RenderProfiler;
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.LineStyle;
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Checks that drawing a scene which does not change stays within
+ * {@link RenderProfiler#ALLOCATION_BUDGET} bytes per frame once warmed up.
+ *
+ * <p>The scene is built from CUI messages through the same path as messages
+ * from the server: a polyhedron selection, multi selection cuboids, and an
+ * ellipsoid, a cylinder and a polygon. Each frame runs the CPU side of the
+ * render path, {@link com.mumfrey.worldeditcui.WorldEditCUI#queueSelections},
+ * and hands the queued geometry to a counting {@link LineSink} instead of
+ * GL. The bytes allocated by the thread over the measured frames are read
+ * from the JVM, and the check throws if the average is over the budget.</p>
+ *
+ * <p>Culling needs the game's projection matrix, so it is disabled and
+ * every region is drawn.</p>
+ */
+public final class RenderAllocationCheck
+{
+	private static final int WARMUP_FRAMES = 500;
+	private static final int FRAMES = 2000;
+
+	private static final List<String> SHAPES = Arrays.asList(
+		"+s|ellipsoid|" + new UUID(0x5745435549L, 100),
+		"+e|0|200|64|0",
+		"+e|1|24|16|24",
+		"+s|cylinder|" + new UUID(0x5745435549L, 101),
+		"+cyl|-200|64|0|20.5|12.5",
+		"+mm|48|96",
+		"+s|polygon2d|" + new UUID(0x5745435549L, 102),
+		"+p2|0|0|-200|0",
+		"+p2|1|40|-220|0",
+		"+p2|2|60|-180|0",
+		"+p2|3|10|-160|0",
+		"+mm|60|72"
+	);
+
+	/**
+	 * Counts what it is sent and keeps nothing
+	 */
+	static final class CountingSink implements LineSink
+	{
+		long vertices;
+
+		@Override
+		public void setStyle(LineStyle line)
+		{
+		}
+
+		@Override
+		public void line(double x1, double y1, double z1, double x2, double y2, double z2)
+		{
+			this.vertices += 2;
+		}
+
+		@Override
+		public void beginLoop()
+		{
+		}
+
+		@Override
+		public void loopVertex(double x, double y, double z)
+		{
+			this.vertices++;
+		}
+
+		@Override
+		public void endLoop()
+		{
+		}
+	}
+
+	private RenderAllocationCheck()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		ProtocolIngestBenchmark.HeadlessController controller = new ProtocolIngestBenchmark.HeadlessController();
+		controller.clear();
+		CUIListenerChannel listener = new CUIListenerChannel(controller);
+		Consumer<CUIEvent> raise = controller.getDispatcher()::raiseEvent;
+
+		List<String> messages = new ArrayList<>(ProtocolIngestBenchmark.messages("polyhedron"));
+		messages.addAll(ProtocolIngestBenchmark.messages("multi"));
+		messages.addAll(RenderAllocationCheck.SHAPES);
+		for (String message : messages)
+		{
+			listener.decode(Unpooled.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)), raise);
+		}
+
+		CUIRenderContext ctx = new CUIRenderContext(new RenderProfiler());
+		CountingSink sink = new CountingSink();
+		MatrixStack matrices = new MatrixStack();
+		Vec3d camera = new Vec3d(20.5, 80.0, -60.5);
+
+		for (int frame = 0; frame < RenderAllocationCheck.WARMUP_FRAMES; frame++)
+		{
+			RenderAllocationCheck.frame(controller, ctx, sink, matrices, camera);
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		sink.vertices = 0;
+		long start = threads.getThreadAllocatedBytes(thread);
+		for (int frame = 0; frame < RenderAllocationCheck.FRAMES; frame++)
+		{
+			RenderAllocationCheck.frame(controller, ctx, sink, matrices, camera);
+		}
+		long perFrame = (threads.getThreadAllocatedBytes(thread) - start) / RenderAllocationCheck.FRAMES;
+
+		System.out.printf("%d frames, %d vertices per frame, %d bytes allocated per frame, budget is %d%n",
+				RenderAllocationCheck.FRAMES, sink.vertices / RenderAllocationCheck.FRAMES, perFrame, RenderProfiler.ALLOCATION_BUDGET);
+
+		if (sink.vertices == 0)
+		{
+			throw new IllegalStateException("The scene drew nothing");
+		}
+
+		if (perFrame > RenderProfiler.ALLOCATION_BUDGET)
+		{
+			throw new IllegalStateException("Rendering selections allocates " + perFrame + " bytes per frame, budget is " + RenderProfiler.ALLOCATION_BUDGET);
+		}
+	}
+
+	private static void frame(ProtocolIngestBenchmark.HeadlessController controller, CUIRenderContext ctx, CountingSink sink, MatrixStack matrices, Vec3d camera)
+	{
+		ctx.init(camera, matrices, 0.0F);
+		ctx.initProjection(null, 70.0, 1080, true);
+		ctx.initLayers(0, 1);
+		controller.queueSelections(ctx);
+		ctx.batcher().drain(sink);
+		ctx.reset();
+	}
+}
@@ -0,0 +1,43 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.points.PointCube;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Cylinder circles and grid, over the radius and height of the cylinder
+ */
+public class CylinderTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "4", "32", "128" })
+	public double radius;
+
+	@Param({ "16", "64", "256" })
+	public int height;
+
+	private RenderCylinderCircles circles;
+	private RenderCylinderGrid grid;
+
+	@Setup
+	public void setup()
+	{
+		PointCube centre = new PointCube(0, 0, 0);
+		this.circles = new RenderCylinderCircles(ConfiguredColour.CYLINDERGRID.style(), centre, this.radius, this.radius, 0, this.height);
+		this.grid = new RenderCylinderGrid(ConfiguredColour.CYLINDERGRID.style(), centre, this.radius, this.radius, 0, this.height);
+	}
+
+	@Benchmark
+	public GeometryBuffer circles(Vertices vertices)
+	{
+		return this.tessellate(this.circles, vertices);
+	}
+
+	@Benchmark
+	public GeometryBuffer grid(Vertices vertices)
+	{
+		return this.tessellate(this.grid, vertices);
+	}
+}
@@ -0,0 +1,33 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.points.PointCube;
+import com.mumfrey.worldeditcui.util.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Ellipsoid at full detail, over its radius
+ */
+public class EllipsoidTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "4", "16", "64", "256" })
+	public double radius;
+
+	private RenderEllipsoid ellipsoid;
+
+	@Setup
+	public void setup()
+	{
+		PointCube centre = new PointCube(0, 64, 0);
+		this.ellipsoid = new RenderEllipsoid(ConfiguredColour.ELLIPSOIDGRID.style(), centre, new Vector3(this.radius, this.radius, this.radius));
+	}
+
+	@Benchmark
+	public GeometryBuffer ellipsoid(Vertices vertices)
+	{
+		return this.tessellate(this.ellipsoid, vertices);
+	}
+}
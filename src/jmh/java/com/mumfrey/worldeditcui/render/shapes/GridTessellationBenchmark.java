@@ -0,0 +1,45 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.util.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Cuboid grid and box, over the size of the cuboid and the grid spacing
+ */
+public class GridTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "16", "64", "256" })
+	public int size;
+
+	@Param({ "1", "4", "16" })
+	public double spacing;
+
+	private Render3DGrid grid;
+	private Render3DBox box;
+
+	@Setup
+	public void setup()
+	{
+		Vector3 min = new Vector3(-this.size / 2, 0, -this.size / 2);
+		Vector3 max = min.add(new Vector3(this.size, this.size, this.size));
+
+		this.grid = new Render3DGrid(ConfiguredColour.CUBOIDGRID.style(), min, max).setSpacing(this.spacing);
+		this.box = new Render3DBox(ConfiguredColour.CUBOIDBOX.style(), min, max);
+	}
+
+	@Benchmark
+	public GeometryBuffer grid(Vertices vertices)
+	{
+		return this.tessellate(this.grid, vertices);
+	}
+
+	@Benchmark
+	public GeometryBuffer box(Vertices vertices)
+	{
+		return this.tessellate(this.box, vertices);
+	}
+}
@@ -0,0 +1,53 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.points.PointRectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polygon region grid and box, over the number of points and the height of
+ * the region. The points are spread around a circle.
+ */
+public class PolygonTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "4", "32", "256" })
+	public int points;
+
+	@Param({ "16", "64", "256" })
+	public int height;
+
+	private Render2DGrid grid;
+	private Render2DBox box;
+
+	@Setup
+	public void setup()
+	{
+		List<PointRectangle> points = new ArrayList<>();
+		for (int i = 0; i < this.points; i++)
+		{
+			double theta = i * Math.PI * 2.0 / this.points;
+			points.add(new PointRectangle((int)(Math.cos(theta) * 128), (int)(Math.sin(theta) * 128)));
+		}
+
+		this.grid = new Render2DGrid(ConfiguredColour.POLYGRID.style(), points, 0, this.height);
+		this.box = new Render2DBox(ConfiguredColour.POLYBOX.style(), points, 0, this.height);
+	}
+
+	@Benchmark
+	public GeometryBuffer grid(Vertices vertices)
+	{
+		return this.tessellate(this.grid, vertices);
+	}
+
+	@Benchmark
+	public GeometryBuffer box(Vertices vertices)
+	{
+		return this.tessellate(this.box, vertices);
+	}
+}
@@ -0,0 +1,38 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.util.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Single polyhedron face, over its number of vertices
+ */
+public class PolyhedronFaceTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "3", "16", "128" })
+	public int points;
+
+	private Render3DPolygon polygon;
+
+	@Setup
+	public void setup()
+	{
+		Vector3[] vertices = new Vector3[this.points];
+		for (int i = 0; i < this.points; i++)
+		{
+			double theta = i * Math.PI * 2.0 / this.points;
+			vertices[i] = new Vector3(Math.cos(theta) * 64.0, i, Math.sin(theta) * 64.0);
+		}
+
+		this.polygon = new Render3DPolygon(ConfiguredColour.POLYBOX.style(), vertices);
+	}
+
+	@Benchmark
+	public GeometryBuffer polygon(Vertices vertices)
+	{
+		return this.tessellate(this.polygon, vertices);
+	}
+}
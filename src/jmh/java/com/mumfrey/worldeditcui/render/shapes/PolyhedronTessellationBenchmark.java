@@ -0,0 +1,51 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.ConfiguredColour;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Closed polyhedron mesh of triangles around a cylinder, over the number of
+ * segments around it. Every edge is shared by two faces.
+ */
+public class PolyhedronTessellationBenchmark extends TessellationBenchmark
+{
+	@Param({ "8", "32", "128" })
+	public int segments;
+
+	private Render3DPolyhedron polyhedron;
+
+	@Setup
+	public void setup()
+	{
+		int rings = this.segments / 2;
+		this.polyhedron = new Render3DPolyhedron(ConfiguredColour.POLYBOX.style());
+		for (int ring = 0; ring < rings; ring++)
+		{
+			for (int segment = 0; segment < this.segments; segment++)
+			{
+				double theta = segment * Math.PI * 2.0 / this.segments;
+				this.polyhedron.setVertex(ring * this.segments + segment, Math.cos(theta) * 64.0, ring * 4.0, Math.sin(theta) * 64.0);
+			}
+		}
+
+		for (int ring = 0; ring < rings - 1; ring++)
+		{
+			for (int segment = 0; segment < this.segments; segment++)
+			{
+				int a = ring * this.segments + segment;
+				int b = ring * this.segments + (segment + 1) % this.segments;
+				this.polyhedron.addFace(new int[] { a, b, a + this.segments });
+				this.polyhedron.addFace(new int[] { b, b + this.segments, a + this.segments });
+			}
+		}
+	}
+
+	@Benchmark
+	public GeometryBuffer polyhedron(Vertices vertices)
+	{
+		return this.tessellate(this.polyhedron, vertices);
+	}
+}
@@ -0,0 +1,74 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import org.lwjgl.opengl.GL11;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base for the shape tessellation benchmarks. Shapes are tessellated straight
+ * into a reused {@link GeometryBuffer}, which is exactly what happens when a
+ * shape is compiled for drawing but without any GL calls, so the benchmarks
+ * run headless.
+ *
+ * <p>The number of vertices produced by each operation only depends on the
+ * parameters, it is reported alongside the timings as the "verticesPerOp"
+ * counter to put them in context.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class TessellationBenchmark
+{
+	private final GeometryBuffer sink = new GeometryBuffer(GL11.GL_LINES);
+
+	protected final GeometryBuffer tessellate(RenderRegion shape, Vertices vertices)
+	{
+		this.sink.reset();
+		shape.tessellate(this.sink);
+		vertices.add(this.sink.getVertexCount());
+		return this.sink;
+	}
+
+	/**
+	 * Counts the vertices produced during each iteration
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Vertices
+	{
+		private long vertices, operations;
+
+		@Setup(Level.Iteration)
+		public void reset()
+		{
+			this.vertices = 0;
+			this.operations = 0;
+		}
+
+		void add(int vertices)
+		{
+			this.vertices += vertices;
+			this.operations++;
+		}
+
+		public long verticesPerOp()
+		{
+			return this.operations > 0 ? this.vertices / this.operations : 0;
+		}
+	}
+}
@@ -33,6 +33,8 @@ public class WorldEditCUI
 	public static final int PROTOCOL_VERSION = 4;
 	
 	private final Map<UUID, Region> regions = new LinkedHashMap<>();
+	private Region[] renderOrder = new Region[0];
+	private boolean regionsChanged;
 	private Region selection, activeRegion;
 	private CUIDebug debugger;
 	private CUIConfiguration configuration;
@@ -101,6 +103,7 @@ public class WorldEditCUI
 	{
 		this.activeRegion = null;
 		this.regions.clear();
+		this.regionsChanged = true;
 	}
 	
 	public Region getSelection(boolean multi)
@@ -119,29 +122,66 @@ public class WorldEditCUI
 		if (region == null)
 		{
 			this.regions.remove(id);
+			this.regionsChanged = true;
 			this.activeRegion = null;
 			return;
 		}
 		
 		this.regions.put(id, region);
+		this.regionsChanged = true;
 		this.activeRegion = region;
 	}
 
 	public void renderSelections(final CUIRenderContext ctx)
 	{
-		if (this.selection != null)
+		this.queueSelections(ctx);
+		
+		if (this.chunkBorders)
 		{
-			this.selection.render(ctx);
+			this.chunkBorderRenderer.render(ctx);
 		}
 		
-		for (Region region : this.regions.values())
+		ctx.batcher().flush(ctx.cameraPos());
+	}
+	
+	/**
+	 * Queue the geometry of every visible selection to the frame's batcher,
+	 * without making any GL calls
+	 */
+	public void queueSelections(final CUIRenderContext ctx)
+	{
+		if (this.selection != null && ctx.frustum().isVisible(this.selection.getBounds()))
 		{
-			region.render(ctx);
+			this.renderRegion(ctx, this.selection);
 		}
 		
-		if (this.chunkBorders)
+		// Iterating the map would allocate every frame, draw from a copy of its
+		// values which is only taken when the regions change
+		if (this.regionsChanged)
 		{
-			this.chunkBorderRenderer.render(ctx);
+			this.regionsChanged = false;
+			this.renderOrder = this.regions.values().toArray(new Region[0]);
+		}
+		
+		for (Region region : this.renderOrder)
+		{
+			if (ctx.frustum().isVisible(region.getBounds()))
+			{
+				this.renderRegion(ctx, region);
+			}
+		}
+	}
+
+	private void renderRegion(final CUIRenderContext ctx, Region region)
+	{
+		ctx.profiler().beginRegion(region.getType());
+		try
+		{
+			region.render(ctx);
+		}
+		finally
+		{
+			ctx.profiler().endRegion();
 		}
 	}
 
@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.config;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.mumfrey.worldeditcui.InitialisationFactory;
+import com.mumfrey.worldeditcui.event.CUIEventRingBuffer;
 import com.mumfrey.worldeditcui.render.ConfiguredColour;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.resource.language.I18n;
@@ -31,10 +32,24 @@ public final class CUIConfiguration implements InitialisationFactory
 
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
+	/**
+	 * Limits of the event queue size, the buffer is allocated up front
+	 */
+	private static final int MIN_EVENT_QUEUE_SIZE = 64, MAX_EVENT_QUEUE_SIZE = 1 << 20;
+
 	private boolean debugMode = false;
 	private boolean ignoreUpdates = false;
 	private boolean promiscuous = false;
+	private boolean binaryProtocol = false;
 	private boolean clearAllOnKey = false;
+	private boolean adaptiveDetail = true;
+	private boolean showProfiler = false;
+	private boolean layerBand = true;
+	private int layerBandSize = 16;
+	private int layerSpacing = 8;
+	private int eventQueueSize = 16384;
+	private int eventsPerTick = 4096;
+	private CUIEventRingBuffer.OverflowPolicy eventOverflow = CUIEventRingBuffer.OverflowPolicy.COALESCE;
 
     private Colour cuboidGridColor = ConfiguredColour.CUBOIDBOX.getDefault();
     private Colour cuboidEdgeColor = ConfiguredColour.CUBOIDGRID.getDefault();
@@ -87,6 +102,11 @@ public final class CUIConfiguration implements InitialisationFactory
 		return this.debugMode;
 	}
 
+	public void setDebugMode(boolean debugMode)
+	{
+		this.debugMode = debugMode;
+	}
+
 	public boolean ignoreUpdates()
 	{
 		return this.ignoreUpdates;
@@ -102,6 +122,15 @@ public final class CUIConfiguration implements InitialisationFactory
 		this.promiscuous = promiscuous;
 	}
 
+	/**
+	 * Get whether the compact binary protocol is offered to the server in the
+	 * handshake
+	 */
+	public boolean isBinaryProtocol()
+	{
+		return this.binaryProtocol;
+	}
+
 	public boolean isClearAllOnKey()
 	{
 		return this.clearAllOnKey;
@@ -112,6 +141,80 @@ public final class CUIConfiguration implements InitialisationFactory
 		this.clearAllOnKey = clearAllOnKey;
 	}
 
+	public boolean isAdaptiveDetail()
+	{
+		return this.adaptiveDetail;
+	}
+
+	public boolean isShowProfiler()
+	{
+		return this.showProfiler;
+	}
+
+	public boolean isLayerBand()
+	{
+		return this.layerBand;
+	}
+
+	/**
+	 * Get the distance from the camera's height within which every layer of
+	 * polygon and cylinder regions is drawn
+	 */
+	public int getLayerBandSize()
+	{
+		return this.layerBandSize;
+	}
+
+	/**
+	 * Get the spacing of the layers drawn outside the layer band
+	 */
+	public int getLayerSpacing()
+	{
+		return this.layerSpacing;
+	}
+
+	/**
+	 * Get the maximum number of events received from the server waiting to be
+	 * applied, rounded up to a power of two by the queue. Only read when the
+	 * game starts.
+	 */
+	public int getEventQueueSize()
+	{
+		return this.eventQueueSize;
+	}
+
+	/**
+	 * Get the maximum number of waiting events applied each client tick, at
+	 * least one and at most the queue size. Only read when the game starts.
+	 */
+	public int getEventsPerTick()
+	{
+		return this.eventsPerTick;
+	}
+
+	/**
+	 * Get what to do with events received while the event queue is full. Only
+	 * read when the game starts.
+	 */
+	public CUIEventRingBuffer.OverflowPolicy getEventOverflow()
+	{
+		return this.eventOverflow;
+	}
+
+	/**
+	 * Bring the event queue settings, which are only set in the file, back
+	 * into range
+	 */
+	private void clampEventQueue()
+	{
+		this.eventQueueSize = Math.min(Math.max(this.eventQueueSize, CUIConfiguration.MIN_EVENT_QUEUE_SIZE), CUIConfiguration.MAX_EVENT_QUEUE_SIZE);
+		this.eventsPerTick = Math.min(Math.max(this.eventsPerTick, 1), this.eventQueueSize);
+		if (this.eventOverflow == null)
+		{
+			this.eventOverflow = CUIEventRingBuffer.OverflowPolicy.COALESCE;
+		}
+	}
+
 	private static Path getConfigFile()
 	{
 		return FabricLoader.getInstance().getConfigDir().resolve(CUIConfiguration.CONFIG_FILE_NAME);
@@ -139,11 +242,16 @@ public final class CUIConfiguration implements InitialisationFactory
 			config = new CUIConfiguration();
 		}
 
+		config.clampEventQueue();
 
 		configArray.put("debugMode", config.debugMode);
 		configArray.put("ignoreUpdates", config.ignoreUpdates);
 		configArray.put("promiscuous", config.promiscuous);
+		configArray.put("binaryProtocol", config.binaryProtocol);
 		configArray.put("clearAllOnKey", config.clearAllOnKey);
+		configArray.put("adaptiveDetail", config.adaptiveDetail);
+		configArray.put("showProfiler", config.showProfiler);
+		configArray.put("layerBand", config.layerBand);
 
 		configArray.put("cuboidGridColor", config.cuboidGridColor);
 		configArray.put("cuboidEdgeColor", config.cuboidEdgeColor);
@@ -175,7 +283,11 @@ public final class CUIConfiguration implements InitialisationFactory
 		debugMode 				= (Boolean) configArray.get("debugMode");
 		ignoreUpdates 			= (Boolean) configArray.get("ignoreUpdates");
 		promiscuous 			= (Boolean) configArray.get("promiscuous");
+		binaryProtocol 			= (Boolean) configArray.get("binaryProtocol");
 		clearAllOnKey 			= (Boolean) configArray.get("clearAllOnKey");
+		adaptiveDetail 			= (Boolean) configArray.get("adaptiveDetail");
+		showProfiler 			= (Boolean) configArray.get("showProfiler");
+		layerBand 				= (Boolean) configArray.get("layerBand");
 
 		cuboidGridColor 		= (Colour) 	configArray.get("cuboidGridColor");
 		cuboidEdgeColor 		= (Colour) 	configArray.get("cuboidEdgeColor");
@@ -199,7 +311,11 @@ public final class CUIConfiguration implements InitialisationFactory
 			case "debugMode":
 			case "ignoreUpdates":
 			case "promiscuous":
-			case "clearAllOnKey": return false;
+			case "binaryProtocol":
+			case "clearAllOnKey":
+			case "showProfiler": return false;
+			case "adaptiveDetail":
+			case "layerBand": return true;
 
 			case "cuboidGridColor": return ConfiguredColour.CUBOIDBOX.getDefault();
 			case "cuboidEdgeColor": return ConfiguredColour.CUBOIDGRID.getDefault();
@@ -225,7 +341,11 @@ public final class CUIConfiguration implements InitialisationFactory
 			case "debugMode": return new TranslatableText("worldeditcui.options.debugMode");
 			case "ignoreUpdates": return new TranslatableText("worldeditcui.options.ignoreUpdates");
 			case "promiscuous": return new TranslatableText("worldeditcui.options.compat.spammy");
+			case "binaryProtocol": return new TranslatableText("worldeditcui.options.compat.binary");
 			case "clearAllOnKey": return new TranslatableText("worldeditcui.options.extra.clearall");
+			case "adaptiveDetail": return new TranslatableText("worldeditcui.options.extra.adaptivedetail");
+			case "showProfiler": return new TranslatableText("worldeditcui.options.extra.profiler");
+			case "layerBand": return new TranslatableText("worldeditcui.options.extra.layerband");
 
 			case "cuboidGridColor": return new TranslatableText("worldeditcui.color.cuboidgrid");
 			case "cuboidEdgeColor": return new TranslatableText("worldeditcui.color.cuboidedge");
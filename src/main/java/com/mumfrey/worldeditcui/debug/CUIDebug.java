@@ -14,6 +14,9 @@ import org.apache.logging.log4j.core.appender.RollingFileAppender;
 import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Debugging helper class
@@ -25,9 +28,12 @@ public final class CUIDebug implements InitialisationFactory
 {
 	private static final boolean LOG_ALL_ERRORS = Boolean.getBoolean("wecui.debug.logall");
 	private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger("WorldEditCUI");
+	private static final long PROFILE_REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
 	
 	private final WorldEditCUI controller;
+	private final RenderProfiler profiler = new RenderProfiler();
 	private boolean debugLogged;
+	private long lastProfileReport;
 
 	public CUIDebug(WorldEditCUI controller)
 	{
@@ -78,6 +84,51 @@ public final class CUIDebug implements InitialisationFactory
 			CUIDebug.LOGGER.info("Debug - " + message);
 		}
 	}
+	
+	/**
+	 * Shows a message if debug mode is true, the message is only formatted
+	 * when it is shown so events can log every message they apply for free.
+	 *
+	 * @param format format string for the message, with one integer argument
+	 * @param value the argument
+	 */
+	public void debug(String format, int value)
+	{
+		if (this.controller.getConfiguration().isDebugMode())
+		{
+			CUIDebug.LOGGER.info("Debug - " + String.format(format, value));
+		}
+	}
+
+	public RenderProfiler getProfiler()
+	{
+		return this.profiler;
+	}
+	
+	/**
+	 * Logs the render profiler summary every few seconds if debug mode is true.
+	 */
+	public void reportProfile()
+	{
+		long now = System.nanoTime();
+		if (!this.controller.getConfiguration().isDebugMode() || now - this.lastProfileReport < CUIDebug.PROFILE_REPORT_INTERVAL)
+		{
+			return;
+		}
+		
+		this.lastProfileReport = now;
+		List<String> lines = new ArrayList<>();
+		this.profiler.getSummary(lines);
+		for (String line : lines)
+		{
+			this.debug(line);
+		}
+		
+		if (this.profiler.isOverAllocationBudget())
+		{
+			CUIDebug.LOGGER.warn("Rendering selections allocates {} bytes per frame, budget is {}", this.profiler.getAllocatedPerFrame(), RenderProfiler.ALLOCATION_BUDGET);
+		}
+	}
 
 	public void error(String message, Throwable exception) {
 		if (!this.debugLogged || LOG_ALL_ERRORS) {
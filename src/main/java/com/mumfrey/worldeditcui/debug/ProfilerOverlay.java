@@ -0,0 +1,50 @@
+package com.mumfrey.worldeditcui.debug;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawableHelper;
+import net.minecraft.client.util.math.MatrixStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws the {@link RenderProfiler} summary in the top right corner of the
+ * screen, laid out like the debug screen. Hidden while the debug screen is
+ * open, since that uses the same corner.
+ */
+public final class ProfilerOverlay
+{
+	private static final int BACKGROUND_COLOUR = 0x90505050;
+	private static final int TEXT_COLOUR = 0xE0E0E0;
+
+	private final RenderProfiler profiler;
+	private final List<String> lines = new ArrayList<>();
+
+	public ProfilerOverlay(RenderProfiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
+	public void render(MinecraftClient minecraft, MatrixStack matrices)
+	{
+		if (minecraft.options.debugEnabled)
+		{
+			return;
+		}
+
+		this.lines.clear();
+		this.profiler.getSummary(this.lines);
+
+		TextRenderer font = minecraft.textRenderer;
+		int right = minecraft.getWindow().getScaledWidth() - 2;
+		int y = 2;
+		for (String line : this.lines)
+		{
+			int x = right - font.getWidth(line);
+			DrawableHelper.fill(matrices, x - 1, y - 1, right + 1, y + font.fontHeight - 1, ProfilerOverlay.BACKGROUND_COLOUR);
+			font.draw(matrices, line, x, y, ProfilerOverlay.TEXT_COLOUR);
+			y += font.fontHeight;
+		}
+	}
+}
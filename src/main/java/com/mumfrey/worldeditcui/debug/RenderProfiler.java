@@ -0,0 +1,308 @@
+package com.mumfrey.worldeditcui.debug;
+
+import com.mumfrey.worldeditcui.render.region.RegionType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures what drawing the selections costs each frame: CPU time on the
+ * render thread, vertices queued and draw calls issued. Times are kept for the
+ * last {@link #WINDOW} frames, for the whole pass and for each region type, and
+ * reported as the median and 99th percentile over that window.
+ *
+ * <p>Where the JVM supports it the bytes allocated by the render thread during
+ * each frame are measured too. Once warmed up, drawing a scene which does not
+ * change should not allocate at all, a median above
+ * {@link #ALLOCATION_BUDGET} is reported as a problem.</p>
+ *
+ * <p>Nothing is measured while the profiler is disabled, the only cost left
+ * is a flag check at each call site.</p>
+ */
+public final class RenderProfiler
+{
+	/**
+	 * Number of frames the percentiles are taken over
+	 */
+	private static final int WINDOW = 240;
+
+	/**
+	 * Bytes a frame may allocate before the render path is reported as
+	 * producing garbage
+	 */
+	public static final long ALLOCATION_BUDGET = 256;
+
+	private final Timings frame = new Timings("Total");
+	private final Timings[] regions = new Timings[RegionType.values().length];
+	private final long[] scratch = new long[RenderProfiler.WINDOW];
+
+	private boolean enabled, profiling;
+	private int frameNumber;
+	private long frameStart, regionStart;
+	private Timings region;
+	private int drawCalls, lastDrawCalls;
+
+	private final com.sun.management.ThreadMXBean threads;
+	private final long[] allocated = new long[RenderProfiler.WINDOW];
+	private int allocatedNext, allocatedCount;
+	private long allocationOverhead, allocatedStart;
+
+	public RenderProfiler()
+	{
+		for (RegionType type : RegionType.values())
+		{
+			this.regions[type.ordinal()] = new Timings(type.getName());
+		}
+
+		this.threads = RenderProfiler.getThreadBean();
+		if (this.threads != null)
+		{
+			// Reading the counter can itself allocate, measure how much
+			long start = this.getAllocatedBytes();
+			this.allocationOverhead = this.getAllocatedBytes() - start;
+		}
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadBean()
+	{
+		try
+		{
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean)
+			{
+				com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)threads;
+				if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+				{
+					return bean;
+				}
+			}
+		}
+		catch (LinkageError ex)
+		{
+			// not a HotSpot-compatible JVM
+		}
+
+		return null;
+	}
+
+	private long getAllocatedBytes()
+	{
+		return this.threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	public boolean isEnabled()
+	{
+		return this.enabled;
+	}
+
+	/**
+	 * Enable or disable profiling, takes effect from the next frame
+	 */
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	public void beginFrame()
+	{
+		this.profiling = this.enabled;
+		if (!this.profiling)
+		{
+			return;
+		}
+
+		this.frameNumber++;
+		this.drawCalls = 0;
+		if (this.threads != null)
+		{
+			this.allocatedStart = this.getAllocatedBytes();
+		}
+		this.frameStart = System.nanoTime();
+	}
+
+	public void endFrame()
+	{
+		if (!this.profiling)
+		{
+			return;
+		}
+
+		this.frame.nanos += System.nanoTime() - this.frameStart;
+		if (this.threads != null)
+		{
+			long allocated = this.getAllocatedBytes() - this.allocatedStart - this.allocationOverhead;
+			this.allocated[this.allocatedNext] = Math.max(allocated, 0L);
+			this.allocatedNext = (this.allocatedNext + 1) % this.allocated.length;
+			this.allocatedCount = Math.min(this.allocatedCount + 1, this.allocated.length);
+		}
+
+		this.frame.record(this.frameNumber);
+		for (Timings region : this.regions)
+		{
+			region.record(this.frameNumber);
+		}
+
+		this.lastDrawCalls = this.drawCalls;
+		this.profiling = false;
+	}
+
+	public void beginRegion(RegionType type)
+	{
+		if (this.profiling)
+		{
+			this.region = this.regions[type.ordinal()];
+			this.region.drawn = true;
+			this.regionStart = System.nanoTime();
+		}
+	}
+
+	public void endRegion()
+	{
+		if (this.profiling && this.region != null)
+		{
+			this.region.nanos += System.nanoTime() - this.regionStart;
+			this.region = null;
+		}
+	}
+
+	/**
+	 * Count vertices queued for drawing, attributed to the region being drawn
+	 * if there is one
+	 */
+	public void addVertices(int count)
+	{
+		if (this.profiling)
+		{
+			this.frame.vertices += count;
+			if (this.region != null)
+			{
+				this.region.vertices += count;
+			}
+		}
+	}
+
+	public void addDrawCall()
+	{
+		this.addDrawCalls(1);
+	}
+
+	public void addDrawCalls(int count)
+	{
+		if (this.profiling)
+		{
+			this.drawCalls += count;
+		}
+	}
+
+	/**
+	 * Get the median number of bytes allocated per frame over the window
+	 *
+	 * @return bytes per frame, or -1 if allocations are not being measured
+	 */
+	public long getAllocatedPerFrame()
+	{
+		if (this.allocatedCount == 0)
+		{
+			return -1L;
+		}
+
+		return this.sort(this.allocated, this.allocatedCount)[(this.allocatedCount - 1) / 2];
+	}
+
+	/**
+	 * Get whether frames are allocating more than {@link #ALLOCATION_BUDGET}
+	 * bytes once the window has filled up
+	 */
+	public boolean isOverAllocationBudget()
+	{
+		return this.allocatedCount == RenderProfiler.WINDOW && this.getAllocatedPerFrame() > RenderProfiler.ALLOCATION_BUDGET;
+	}
+
+	/**
+	 * Describe the measurements over the window, one line for the whole pass
+	 * followed by one for each region type drawn during the window
+	 *
+	 * @param lines list to add the lines to
+	 */
+	public void getSummary(List<String> lines)
+	{
+		if (this.frame.count == 0)
+		{
+			lines.add("WorldEditCUI: no frames profiled");
+			return;
+		}
+
+		lines.add(String.format(Locale.ROOT, "WorldEditCUI: %s, %d draw calls", this.describe(this.frame), this.lastDrawCalls));
+		long allocated = this.getAllocatedPerFrame();
+		if (allocated >= 0)
+		{
+			lines.add(String.format(Locale.ROOT, "  Allocated: %d bytes/frame p50%s", allocated, this.isOverAllocationBudget() ? ", over budget" : ""));
+		}
+		for (Timings region : this.regions)
+		{
+			if (region.count > 0 && this.frameNumber - region.lastFrame < RenderProfiler.WINDOW)
+			{
+				lines.add(String.format(Locale.ROOT, "  %s: %s", region.name, this.describe(region)));
+			}
+		}
+	}
+
+	private String describe(Timings timings)
+	{
+		int count = timings.count;
+		long[] sorted = this.sort(timings.samples, count);
+
+		double p50 = sorted[(count - 1) / 2] / 1.0E6;
+		double p99 = sorted[(int)((count - 1) * 0.99)] / 1.0E6;
+		return String.format(Locale.ROOT, "%.3f ms p50, %.3f ms p99, %d vertices", p50, p99, timings.lastVertices);
+	}
+
+	private long[] sort(long[] samples, int count)
+	{
+		System.arraycopy(samples, 0, this.scratch, 0, count);
+		Arrays.sort(this.scratch, 0, count);
+		return this.scratch;
+	}
+
+	/**
+	 * Rolling window of frame times for one part of the pass
+	 */
+	private static final class Timings
+	{
+		final String name;
+		final long[] samples = new long[RenderProfiler.WINDOW];
+		int next, count;
+		int lastFrame, lastVertices;
+
+		boolean drawn;
+		long nanos;
+		int vertices;
+
+		Timings(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * Store the time accumulated this frame, if this part was drawn
+		 */
+		void record(int frame)
+		{
+			if (this.drawn || this.nanos > 0)
+			{
+				this.samples[this.next] = this.nanos;
+				this.next = (this.next + 1) % this.samples.length;
+				this.count = Math.min(this.count + 1, this.samples.length);
+				this.lastFrame = frame;
+				this.lastVertices = this.vertices;
+			}
+
+			this.drawn = false;
+			this.nanos = 0;
+			this.vertices = 0;
+		}
+	}
+}
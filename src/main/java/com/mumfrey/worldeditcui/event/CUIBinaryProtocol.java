@@ -0,0 +1,107 @@
+package com.mumfrey.worldeditcui.event;
+
+/**
+ * Constants and helpers for the compact binary form of CUI messages, which a
+ * server may send instead of text once the client has offered it in the
+ * handshake.
+ *
+ * <p>The client sends {@link #CAPABILITY_MESSAGE} after the usual version
+ * message. A server which does not know it ignores it and keeps sending text,
+ * which the client always accepts. A binary payload starts with
+ * {@link #MARKER}, which is never the first byte of UTF-8 text, followed by
+ * the format {@link #VERSION} and any number of records:</p>
+ *
+ * <ul>
+ *   <li>varint header, the event id shifted left by one with the low bit set
+ *   for events of a multi selection. The event id is the
+ *   {@link CUIEventType#getBinaryId binary id} of the event type.</li>
+ *   <li>varint field count</li>
+ *   <li>each field, a varint whose low two bits give the kind of field and
+ *   whose remaining bits give its value:
+ *     <ul>
+ *       <li>{@link #INT}, a zig-zag encoded integer</li>
+ *       <li>{@link #DELTA}, a zig-zag encoded difference from the base of the
+ *       field, see below</li>
+ *       <li>{@link #STRING}, the length of the UTF-8 bytes which follow</li>
+ *       <li>{@link #DOUBLE}, a value of zero followed by an eight byte IEEE 754
+ *       double</li>
+ *     </ul>
+ *   </li>
+ * </ul>
+ *
+ * <p>Varints hold seven bits per byte, least significant first, with the top
+ * bit set on every byte but the last. Consecutive polygon and polyhedron
+ * vertices only differ by a few blocks, so most of their fields fit in one
+ * byte as deltas.</p>
+ *
+ * <p>The fields of each event type repeat every {@link #getStride stride}
+ * fields: once per point or triangle for the batch events, never for the
+ * other events. The base of a field is the value of the most recent
+ * {@link #INT} or {@link #DELTA} field at the same position modulo the
+ * stride, earlier in the same record or in an earlier record of the same
+ * event type in the payload, or zero if there is none. So each vertex of a
+ * batch is a delta from the vertex before it, and the first vertex of a batch
+ * from the last vertex of the batch before.</p>
+ */
+public final class CUIBinaryProtocol
+{
+	/**
+	 * First byte of a binary payload
+	 */
+	public static final byte MARKER = (byte)0xFF;
+
+	/**
+	 * Version of the binary format, the second byte of a binary payload
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Message sent in the handshake to offer the binary format to the server
+	 */
+	public static final String CAPABILITY_MESSAGE = "cap|bin" + CUIBinaryProtocol.VERSION;
+
+	public static final int INT = 0;
+	public static final int DELTA = 1;
+	public static final int STRING = 2;
+	public static final int DOUBLE = 3;
+
+	static final int KIND_BITS = 2;
+	static final int KIND_MASK = (1 << CUIBinaryProtocol.KIND_BITS) - 1;
+
+	/**
+	 * Longest varint, enough for any 64 bit value
+	 */
+	static final int MAX_VARINT_LENGTH = 10;
+
+	private CUIBinaryProtocol()
+	{
+	}
+
+	/**
+	 * Get the number of fields after which the fields of an event type
+	 * repeat, for finding the base of delta encoded fields
+	 */
+	static int getStride(CUIEventType type)
+	{
+		switch (type)
+		{
+			case POINT_BATCH:
+			case POLYGON_BATCH:
+				return 4; // id, x, y, z or a triangle: 3, a, b, c
+			case POINT2D_BATCH:
+				return 3;
+			default:
+				return type.getMaxParameters();
+		}
+	}
+
+	public static long zigZag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public static long unZigZag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,173 @@
+package com.mumfrey.worldeditcui.event;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.Arrays;
+
+/**
+ * Reads the records of a binary payload into a {@link CUIMessage} one at a
+ * time, see {@link CUIBinaryProtocol} for the format. The reader index of the
+ * payload is not changed.
+ *
+ * <p>A single instance is reused for every payload received, so it must only
+ * be used by one thread.</p>
+ */
+public final class CUIBinaryReader
+{
+	private ByteBuf payload;
+	private int position, end;
+
+	/**
+	 * Value of the latest integer field at each position in the stride of each
+	 * event type, the bases for delta encoded fields
+	 */
+	private final long[][] previous = new long[CUIEventType.values().length][];
+
+	public CUIBinaryReader()
+	{
+		for (int type = 0; type < this.previous.length; type++)
+		{
+			this.previous[type] = new long[8];
+		}
+	}
+
+	/**
+	 * Get whether a payload is in the binary format
+	 */
+	public static boolean isBinary(ByteBuf payload)
+	{
+		return payload.isReadable() && payload.getByte(payload.readerIndex()) == CUIBinaryProtocol.MARKER;
+	}
+
+	/**
+	 * Start reading a binary payload
+	 *
+	 * @throws IllegalArgumentException if the payload is not in a supported
+	 *      version of the binary format
+	 */
+	public void begin(ByteBuf payload)
+	{
+		if (!CUIBinaryReader.isBinary(payload))
+		{
+			throw new IllegalArgumentException("Not a binary CUI payload");
+		}
+
+		this.payload = payload;
+		this.position = payload.readerIndex() + 1;
+		this.end = payload.writerIndex();
+
+		int version = (int)this.readVarint();
+		if (version != CUIBinaryProtocol.VERSION)
+		{
+			this.payload = null;
+			throw new IllegalArgumentException("Unsupported binary CUI version " + version);
+		}
+
+		for (long[] fields : this.previous)
+		{
+			Arrays.fill(fields, 0L);
+		}
+	}
+
+	/**
+	 * Read the next record into a message
+	 *
+	 * @return false if there are no more records in the payload
+	 * @throws IllegalArgumentException if the record is malformed, the rest of
+	 *      the payload cannot be read
+	 */
+	public boolean next(CUIMessage message)
+	{
+		if (this.payload == null || this.position >= this.end)
+		{
+			this.payload = null;
+			return false;
+		}
+
+		long header = this.readVarint();
+		CUIEventType type = CUIEventType.byBinaryId(header >>> 1);
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Unknown binary CUI event id " + (header >>> 1));
+		}
+
+		long count = this.readVarint();
+		if (count > type.getMaxParameters())
+		{
+			throw new IllegalArgumentException("Too many fields for " + type.getName() + " event: " + count);
+		}
+
+		this.checkReadable(count); // every field is at least one byte
+
+		message.begin(type, (header & 1) != 0);
+		int stride = CUIBinaryProtocol.getStride(type);
+		long[] previous = this.previous[type.ordinal()];
+		if (previous.length < Math.min(count, stride))
+		{
+			previous = this.previous[type.ordinal()] = Arrays.copyOf(previous, (int)Math.min(count, stride));
+		}
+
+		for (int field = 0; field < count; field++)
+		{
+			int base = field % stride;
+			long tag = this.readVarint();
+			long value = tag >>> CUIBinaryProtocol.KIND_BITS;
+			switch ((int)(tag & CUIBinaryProtocol.KIND_MASK))
+			{
+				case CUIBinaryProtocol.INT:
+					previous[base] = CUIBinaryProtocol.unZigZag(value);
+					message.addNumber(previous[base]);
+					break;
+
+				case CUIBinaryProtocol.DELTA:
+					previous[base] += CUIBinaryProtocol.unZigZag(value);
+					message.addNumber(previous[base]);
+					break;
+
+				case CUIBinaryProtocol.STRING:
+					this.checkReadable(value);
+					message.addString(this.payload, this.position, (int)value);
+					this.position += (int)value;
+					break;
+
+				default:
+					if (value != 0)
+					{
+						throw new IllegalArgumentException("Malformed double field in binary CUI payload");
+					}
+
+					this.checkReadable(Double.BYTES);
+					message.addNumber(this.payload.getDouble(this.position));
+					this.position += Double.BYTES;
+					break;
+			}
+		}
+
+		return true;
+	}
+
+	private long readVarint()
+	{
+		long value = 0;
+		for (int shift = 0, length = 0; length < CUIBinaryProtocol.MAX_VARINT_LENGTH; shift += 7, length++)
+		{
+			this.checkReadable(1);
+			byte b = this.payload.getByte(this.position++);
+			value |= (long)(b & 0x7F) << shift;
+			if (b >= 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IllegalArgumentException("Malformed varint in binary CUI payload");
+	}
+
+	private void checkReadable(long length)
+	{
+		if (length < 0 || length > this.end - this.position)
+		{
+			throw new IllegalArgumentException("Truncated binary CUI payload");
+		}
+	}
+}
@@ -1,31 +1,89 @@
 package com.mumfrey.worldeditcui.event;
 
-import com.google.common.base.Joiner;
 import com.mumfrey.worldeditcui.WorldEditCUI;
+import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
  * Base event for CUI events, handles parameter validation and running the logic
+ *
+ * <p>Events are decoded from their message as soon as it is received, on the
+ * network thread, and keep their parameters in final fields. Only
+ * {@link #raise} touches the controller's state, on the client thread.</p>
  * 
  * @author yetanotherx
  * @author Adam Mummery-Smith
  */
 public abstract class CUIEvent
 {
+	/**
+	 * Coalescing key of events which are never merged
+	 */
+	public static final long NOT_COALESCED = 0L;
+	
 	protected final WorldEditCUI controller;
-	protected final String[] params;
 	protected final boolean multi;
 	
+	/**
+	 * Validate the message and read the parameters. Subclasses read every
+	 * parameter they need in their constructor, the message is reused once the
+	 * event has been created.
+	 */
 	public CUIEvent(CUIEventArgs args)
 	{
 		this.controller = args.getController();
-		this.params = args.getParams();
 		this.multi = args.isMulti();
+		this.prepare(args.getMessage());
 	}
 	
+	/**
+	 * Apply the event, called on the client thread
+	 */
 	public abstract String raise();
 	
 	public abstract CUIEventType getEventType();
 	
+	public boolean isMulti()
+	{
+		return this.multi;
+	}
+	
+	/**
+	 * Get what this event changes in its region, when several events in the
+	 * same tick have the same key only the last one is applied. Events which
+	 * must all be applied return {@link #NOT_COALESCED}.
+	 */
+	public long getCoalesceKey()
+	{
+		return CUIEvent.NOT_COALESCED;
+	}
+	
+	/**
+	 * Get whether this event replaces the region that later events apply to
+	 */
+	public boolean isSelectionChange()
+	{
+		return false;
+	}
+	
+	/**
+	 * Get whether events before this one must never be merged with events
+	 * after it. True for selection changes, and for batches which change
+	 * several points at once and so have no single coalescing key.
+	 */
+	public boolean isCoalescingBarrier()
+	{
+		return this.isSelectionChange();
+	}
+	
+	/**
+	 * Make a coalescing key from this event's type and the id of the point
+	 * or property it changes, the key never uses the upper 28 bits
+	 */
+	protected final long coalesceKey(int id)
+	{
+		return ((long)(this.getEventType().ordinal() + 1) << 32) | (id & 0xFFFFFFFFL);
+	}
+	
 	public String getEventName()
 	{
 		return this.getEventType().getName();
@@ -35,21 +93,21 @@ public abstract class CUIEvent
 	 * Checks if the parameters match the required length.
 	 * @return 
 	 */
-	public boolean isValid()
+	public boolean isValid(int count)
 	{
 		int max = this.getEventType().getMaxParameters();
 		int min = this.getEventType().getMinParameters();
 		
 		if (max == min)
 		{
-			if (this.params.length != max)
+			if (count != max)
 			{
 				return false;
 			}
 		}
 		else
 		{
-			if (this.params.length > max || this.params.length < min)
+			if (count > max || count < min)
 			{
 				return false;
 			}
@@ -59,20 +117,35 @@ public abstract class CUIEvent
 		
 	}
 	
-	public void prepare()
+	protected void prepare(CUIMessage params)
 	{
-		if (this.controller == null || this.params == null)
+		if (this.controller == null || params == null)
 		{
 			throw new IllegalStateException("Controller and parameters must both be set.");
 		}
 		
-		if (!this.isValid())
+		if (!this.isValid(params.getFieldCount()))
 		{
-			String message = String.format("Invalid number of parameters. %s event requires %s parameters but received %s [%s]", this.getEventName(), this.getRequiredParameterString(), this.params.length, Joiner.on(", ").join(this.params));
+			String message = String.format("Invalid number of parameters. %s event requires %s parameters but received %s [%s]", this.getEventName(), this.getRequiredParameterString(), params.getFieldCount(), params.getFields().replace("|", ", "));
 			throw new IllegalArgumentException(message);
 		}
 	}
 	
+	/**
+	 * Check that a field holds a point id which regions accept, ids index
+	 * lists of points so a negative or huge id must never reach a region
+	 *
+	 * @throws IllegalArgumentException if the id is out of range
+	 */
+	protected static void checkPointId(CUIMessage params, int field)
+	{
+		int id = params.getInt(field);
+		if (id < 0 || id > Region.MAX_POINT_ID)
+		{
+			throw new IllegalArgumentException("Invalid point id " + id + ", must be between 0 and " + Region.MAX_POINT_ID);
+		}
+	}
+	
 	private String getRequiredParameterString()
 	{
 		if (this.getEventType().getMaxParameters() == this.getEventType().getMinParameters())
@@ -82,19 +155,4 @@ public abstract class CUIEvent
 		
 		return String.format("between %d and %d", this.getEventType().getMinParameters(), this.getEventType().getMaxParameters());
 	}
-
-	public int getInt(int index)
-	{
-		return (int)Float.parseFloat(this.params[index]);
-	}
-	
-	public double getDouble(int index)
-	{
-		return Double.parseDouble(this.params[index]);
-	}
-	
-	public String getString(int index)
-	{
-		return this.params[index];
-	}
 }
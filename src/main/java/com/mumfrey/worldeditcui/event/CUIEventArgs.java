@@ -1,36 +1,28 @@
 package com.mumfrey.worldeditcui.event;
 
-import com.google.common.base.Joiner;
 import com.mumfrey.worldeditcui.WorldEditCUI;
 
 /**
  * CUI communication event
  * Called when a CUI event is sent from the server.
  * 
+ * <p>Wraps the message being decoded. Listeners read every message into the
+ * same {@link CUIMessage}, so they create their arguments once and reuse them
+ * for each message instead of allocating per message.</p>
+ * 
  * @author lahwran
  * @author yetanotherx
  * @author Adam Mummery-Smith
  */
 public final class CUIEventArgs
 {
-	private WorldEditCUI controller;
-	private boolean multi;
-	private String type;
-	private String[] params;
+	private final WorldEditCUI controller;
+	private final CUIMessage message;
 	
-	public CUIEventArgs(WorldEditCUI controller, boolean multi, String type, String[] params)
+	public CUIEventArgs(WorldEditCUI controller, CUIMessage message)
 	{
 		this.controller = controller;
-		this.multi = multi;
-		this.type = type;
-		
-		if (params.length == 1 && params[0].length() == 0)
-		{
-			params = new String[] {};
-		}
-		
-		this.params = params;
-		this.controller.getDebugger().debug("CUI Event (" + type + ") - Params: " + Joiner.on(", ").join(params));
+		this.message = message;
 	}
 	
 	public WorldEditCUI getController()
@@ -38,18 +30,23 @@ public final class CUIEventArgs
 		return this.controller;
 	}
 	
-	public String[] getParams()
+	/**
+	 * Get the message the event is being decoded from. The message is reused
+	 * for the next message received, so must not be kept once the event has
+	 * been created.
+	 */
+	public CUIMessage getMessage()
 	{
-		return this.params;
+		return this.message;
 	}
 	
 	public String getType()
 	{
-		return this.type;
+		return this.message.getKey();
 	}
 	
 	public boolean isMulti()
 	{
-		return this.multi;
+		return this.message.isMulti();
 	}
 }
@@ -4,10 +4,6 @@ import com.mumfrey.worldeditcui.InitialisationFactory;
 import com.mumfrey.worldeditcui.WorldEditCUI;
 import com.mumfrey.worldeditcui.exceptions.InitialisationException;
 
-import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @author Adam Mummery-Smith
  */
@@ -26,20 +22,45 @@ public class CUIEventDispatcher implements InitialisationFactory
 	{
 	}
 
-	public void raiseEvent(CUIEventArgs eventArgs)
+	/**
+	 * Decode and validate the event for a message. Does not touch any client
+	 * state so can be called on the network thread.
+	 *
+	 * @return the event, or null if the message is not a valid event
+	 */
+	public CUIEvent createEvent(CUIEventArgs eventArgs)
+	{
+		final CUIEventType type = CUIEventType.of(eventArgs.getMessage());
+		if (this.controller.getConfiguration().isDebugMode())
+		{
+			CUIMessage message = eventArgs.getMessage();
+			this.controller.getDebugger().debug("CUI Event (" + message.getKey() + ") - Params: " + message.getFields().replace("|", ", "));
+		}
+		
+		if (type == null)
+		{
+			this.controller.getDebugger().debug("No such event " + eventArgs.getType());
+			return null;
+		}
+		
+		try
+		{
+			return type.make(eventArgs);
+		}
+		catch (Exception ex)
+		{
+			this.controller.getDebugger().debug("Error decoding event " + type.getKey() + ": " + ex.getClass().getSimpleName() + " " + ex.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * Apply a decoded event, must be called on the client thread
+	 */
+	public void raiseEvent(CUIEvent event)
 	{
 		try
 		{
-			final CUIEventType type = CUIEventType.named(eventArgs.getType());
-			if (type == null)
-			{
-				this.controller.getDebugger().debug("No such event " + eventArgs.getType());
-				return;
-			}
-			
-			CUIEvent event = type.make(eventArgs);
-			event.prepare();
-			
 			String response = event.raise();
 			if (response != null)
 			{
@@ -49,7 +70,7 @@ public class CUIEventDispatcher implements InitialisationFactory
 		catch (Exception ex)
 		{
 			ex.printStackTrace();
-			this.controller.getDebugger().debug("Error raising event " + eventArgs.getType() + ": " + ex.getClass().getSimpleName() + " " + ex.getMessage());
+			this.controller.getDebugger().debug("Error raising event " + event.getEventType().getKey() + ": " + ex.getClass().getSimpleName() + " " + ex.getMessage());
 		}
 	}
 
@@ -0,0 +1,115 @@
+package com.mumfrey.worldeditcui.event;
+
+import com.mumfrey.worldeditcui.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the events received during a client tick and applies them together
+ * at the end of the tick. WorldEdit often resends the same points, bounds and
+ * styles several times in a burst, so events which change the same thing in
+ * the same region are collapsed and only the last one is applied.
+ *
+ * <p>A later event replaces the earlier one in the earlier one's position, so
+ * events which refer to a point (polyhedron faces) still see it set first.
+ * Events are never merged across a selection event, since events after it
+ * apply to a different region, or across a batch event. The selection and the
+ * active multi selection are tracked separately.</p>
+ *
+ * <p>Only used on the client thread.</p>
+ */
+public final class CUIEventQueue
+{
+	private static final long MULTI = 1L << 36;
+	private static final int EPOCH_SHIFT = 37;
+
+	private final CUIEventDispatcher dispatcher;
+	private final List<CUIEvent> pending = new ArrayList<>();
+
+	/**
+	 * Position in the pending list of the latest event for each key
+	 */
+	private final LongIntHashMap latest = new LongIntHashMap();
+
+	/**
+	 * Number of barrier events seen this tick for each kind of selection, keys
+	 * from before a barrier never match keys from after it
+	 */
+	private int selectionEpoch, multiEpoch;
+
+	public CUIEventQueue(CUIEventDispatcher dispatcher)
+	{
+		this.dispatcher = dispatcher;
+	}
+
+	public void add(CUIEvent event)
+	{
+		if (event.isCoalescingBarrier())
+		{
+			if (event.isMulti())
+			{
+				this.multiEpoch++;
+			}
+			else
+			{
+				this.selectionEpoch++;
+			}
+		}
+
+		long key = event.getCoalesceKey();
+		if (key == CUIEvent.NOT_COALESCED)
+		{
+			this.pending.add(event);
+			return;
+		}
+
+		key |= event.isMulti() ? CUIEventQueue.MULTI | ((long)this.multiEpoch << CUIEventQueue.EPOCH_SHIFT) : (long)this.selectionEpoch << CUIEventQueue.EPOCH_SHIFT;
+
+		int index = this.latest.get(key, -1);
+		if (index >= 0)
+		{
+			this.pending.set(index, event);
+			return;
+		}
+
+		this.latest.put(key, this.pending.size());
+		this.pending.add(event);
+	}
+
+	/**
+	 * Apply the events collected since the last flush, to be called once per
+	 * client tick
+	 */
+	public void flush()
+	{
+		if (this.pending.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			for (int i = 0; i < this.pending.size(); i++)
+			{
+				this.dispatcher.raiseEvent(this.pending.get(i));
+			}
+		}
+		finally
+		{
+			this.discard();
+		}
+	}
+
+	/**
+	 * Throw away the events collected since the last flush without applying
+	 * them
+	 */
+	public void discard()
+	{
+		this.pending.clear();
+		this.latest.clear();
+		this.selectionEpoch = 0;
+		this.multiEpoch = 0;
+	}
+}
@@ -0,0 +1,330 @@
+package com.mumfrey.worldeditcui.event;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Bounded queue handing decoded events from the network thread to the client
+ * thread. There is exactly one producer, the network thread, which only ever
+ * writes the tail, and one consumer, the client thread, which only ever writes
+ * the head, so neither side takes a lock.
+ *
+ * <p>The client thread drains a limited number of events per tick, so a
+ * server sending far more than can be applied fills the buffer instead of
+ * stalling the client. What happens to events received while the buffer is
+ * full depends on the {@link OverflowPolicy}.</p>
+ *
+ * <p>Each slot carries the sequence number of the event in it. A slot being
+ * written is marked with an invalid sequence first, so the consumer can tell
+ * when the producer has overwritten a slot it is reading. The consumer takes
+ * an event by swapping it out of its slot for null, so an event replaced in
+ * place is either taken whole by the consumer or seen as already taken by the
+ * producer, and the buffer does not keep consumed events reachable.</p>
+ */
+public final class CUIEventRingBuffer
+{
+	/**
+	 * What to do with an event received while the buffer is full
+	 */
+	public enum OverflowPolicy
+	{
+		/**
+		 * Overwrite the oldest event in the buffer
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Discard the event received
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Replace a queued event which changes the same thing, if there is one
+		 * among the most recent events, otherwise discard the event received
+		 */
+		COALESCE
+	}
+
+	/**
+	 * How far back from the tail to look for an event to replace
+	 */
+	private static final int COALESCE_WINDOW = 256;
+
+	private static final long WRITING = -1L;
+
+	private static final class Slot
+	{
+		static final AtomicReferenceFieldUpdater<Slot, CUIEvent> EVENT = AtomicReferenceFieldUpdater.newUpdater(Slot.class, CUIEvent.class, "event");
+
+		volatile long sequence = CUIEventRingBuffer.WRITING;
+		volatile CUIEvent event;
+	}
+
+	private static final int NOT_FOUND = 0, REPLACED = 1, TAKEN = 2;
+
+	private final Slot[] slots;
+	private final int mask;
+	private final OverflowPolicy policy;
+
+	private volatile long head, tail;
+
+	// Each counter only has one writer
+	private volatile long enqueued, coalesced, droppedNewest, droppedOldest;
+	private volatile int peakDepth;
+
+	/**
+	 * @param capacity maximum number of queued events, rounded up to a power
+	 *      of two
+	 * @param policy what to do with events received while the buffer is full
+	 */
+	public CUIEventRingBuffer(int capacity, OverflowPolicy policy)
+	{
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		this.slots = new Slot[size];
+		for (int i = 0; i < size; i++)
+		{
+			this.slots[i] = new Slot();
+		}
+		this.mask = size - 1;
+		this.policy = policy;
+	}
+
+	public int getCapacity()
+	{
+		return this.slots.length;
+	}
+
+	public OverflowPolicy getPolicy()
+	{
+		return this.policy;
+	}
+
+	/**
+	 * Queue an event, called on the network thread only
+	 *
+	 * @return false if the event was discarded
+	 */
+	public boolean offer(CUIEvent event)
+	{
+		long tail = this.tail;
+		if (tail - this.head >= this.slots.length)
+		{
+			int replaced = this.policy == OverflowPolicy.COALESCE ? this.replace(event, tail) : CUIEventRingBuffer.NOT_FOUND;
+			if (replaced == CUIEventRingBuffer.REPLACED)
+			{
+				this.coalesced++;
+				return true;
+			}
+
+			if (replaced == CUIEventRingBuffer.TAKEN)
+			{
+				// The consumer got there first, so it has freed the oldest slot
+				this.publish(tail, event);
+				this.enqueued++;
+				return true;
+			}
+
+			if (this.policy != OverflowPolicy.DROP_OLDEST)
+			{
+				this.droppedNewest++;
+				return false;
+			}
+
+			// Otherwise overwrite, the consumer counts what it missed
+		}
+
+		this.publish(tail, event);
+		this.enqueued++;
+		return true;
+	}
+
+	private void publish(long sequence, CUIEvent event)
+	{
+		Slot slot = this.slots[(int)sequence & this.mask];
+		slot.sequence = CUIEventRingBuffer.WRITING;
+		slot.event = event;
+		slot.sequence = sequence;
+		this.tail = sequence + 1;
+
+		int depth = (int)Math.min(sequence + 1 - this.head, this.slots.length);
+		if (depth > this.peakDepth)
+		{
+			this.peakDepth = depth;
+		}
+	}
+
+	/**
+	 * Replace the most recent queued event with the same coalescing key, not
+	 * looking past a selection change since the events before it apply to a
+	 * different region, or past a batch
+	 *
+	 * @return {@link #REPLACED} if a queued event was replaced,
+	 *      {@link #TAKEN} if the consumer took a slot being looked at, so there
+	 *      is room at the tail, otherwise {@link #NOT_FOUND}
+	 */
+	private int replace(CUIEvent event, long tail)
+	{
+		long key = event.getCoalesceKey();
+		if (key == CUIEvent.NOT_COALESCED)
+		{
+			return CUIEventRingBuffer.NOT_FOUND;
+		}
+
+		long oldest = Math.max(this.head, tail - CUIEventRingBuffer.COALESCE_WINDOW);
+		for (long sequence = tail - 1; sequence >= oldest; sequence--)
+		{
+			Slot slot = this.slots[(int)sequence & this.mask];
+			CUIEvent queued = slot.event;
+			if (queued == null)
+			{
+				// Taken, and the consumer takes events in order
+				return CUIEventRingBuffer.TAKEN;
+			}
+
+			if (queued.isCoalescingBarrier())
+			{
+				return CUIEventRingBuffer.NOT_FOUND;
+			}
+
+			if (queued.getCoalesceKey() == key && queued.isMulti() == event.isMulti() && queued.getEventType() == event.getEventType())
+			{
+				// Fails if the consumer has just taken the old event
+				return Slot.EVENT.compareAndSet(slot, queued, event) ? CUIEventRingBuffer.REPLACED : CUIEventRingBuffer.TAKEN;
+			}
+		}
+
+		return CUIEventRingBuffer.NOT_FOUND;
+	}
+
+	/**
+	 * Move queued events to the tick queue, called on the client thread only
+	 *
+	 * @param queue queue to add the events to
+	 * @param max maximum number of events to move
+	 * @return number of events moved
+	 */
+	public int drainTo(CUIEventQueue queue, int max)
+	{
+		long head = this.head;
+		long tail = this.tail;
+		if (tail - head > this.slots.length)
+		{
+			this.droppedOldest += tail - this.slots.length - head;
+			head = tail - this.slots.length;
+		}
+
+		int count = 0;
+		for (; head < tail && count < max; head++)
+		{
+			CUIEvent event = this.take(this.slots[(int)head & this.mask], head);
+			if (event == null)
+			{
+				this.droppedOldest++; // overwritten while waiting
+			}
+			else
+			{
+				queue.add(event);
+				count++;
+			}
+
+			this.head = head + 1;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Throw away every queued event, called on the client thread only. Events
+	 * received afterwards are queued as usual.
+	 *
+	 * @return number of events discarded
+	 */
+	public int discard()
+	{
+		long head = this.head;
+		long tail = this.tail;
+		if (tail - head > this.slots.length)
+		{
+			head = tail - this.slots.length;
+		}
+
+		int count = 0;
+		for (; head < tail; head++)
+		{
+			if (this.take(this.slots[(int)head & this.mask], head) != null)
+			{
+				count++;
+			}
+
+			this.head = head + 1;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Take the event out of a slot, waiting for the producer to finish writing
+	 * it if necessary
+	 *
+	 * @return null if the slot has been overwritten with a later event
+	 */
+	private CUIEvent take(Slot slot, long sequence)
+	{
+		while (true)
+		{
+			long current = slot.sequence;
+			if (current == CUIEventRingBuffer.WRITING)
+			{
+				Thread.yield();
+				continue;
+			}
+
+			if (current != sequence)
+			{
+				return null;
+			}
+
+			CUIEvent event = slot.event;
+			if (slot.sequence == sequence && event != null && Slot.EVENT.compareAndSet(slot, event, null))
+			{
+				return event;
+			}
+
+			// Replaced or overwritten in the meantime, look again
+		}
+	}
+
+	/**
+	 * Number of events currently queued
+	 */
+	public int getDepth()
+	{
+		return (int)Math.min(Math.max(this.tail - this.head, 0L), this.slots.length);
+	}
+
+	public long getEnqueued()
+	{
+		return this.enqueued;
+	}
+
+	/**
+	 * Number of events which replaced a queued event because the buffer was
+	 * full
+	 */
+	public long getCoalesced()
+	{
+		return this.coalesced;
+	}
+
+	/**
+	 * Number of events discarded or overwritten because the buffer was full
+	 */
+	public long getDropped()
+	{
+		return this.droppedNewest + this.droppedOldest;
+	}
+
+	public int getPeakDepth()
+	{
+		return this.peakDepth;
+	}
+}
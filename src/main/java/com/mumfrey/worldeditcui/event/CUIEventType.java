@@ -6,43 +6,54 @@ import com.mumfrey.worldeditcui.event.cui.CUIEventCylinder;
 import com.mumfrey.worldeditcui.event.cui.CUIEventEllipsoid;
 import com.mumfrey.worldeditcui.event.cui.CUIEventGrid;
 import com.mumfrey.worldeditcui.event.cui.CUIEventPoint2D;
+import com.mumfrey.worldeditcui.event.cui.CUIEventPoint2DBatch;
 import com.mumfrey.worldeditcui.event.cui.CUIEventPoint3D;
+import com.mumfrey.worldeditcui.event.cui.CUIEventPoint3DBatch;
 import com.mumfrey.worldeditcui.event.cui.CUIEventPolygon;
+import com.mumfrey.worldeditcui.event.cui.CUIEventPolygonBatch;
 import com.mumfrey.worldeditcui.event.cui.CUIEventSelection;
 import com.mumfrey.worldeditcui.event.cui.CUIEventUpdate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.function.Function;
 
 /**
  * Event type enum for CUI events. Also stores class, arguments, and key for each value.
  * 
+ * <p>Each value has a fixed event id in the binary protocol, which must never
+ * change once released. New values take the next unused id, wherever they
+ * are declared.</p>
+ * 
  * @author yetanotherx
  * @author Adam Mummery-Smith
  */
 public enum CUIEventType
 {
-	SELECTION(CUIEventSelection::new, "Selection", "s", 1, 2),
-	POINT(CUIEventPoint3D::new, "Point3D", "p", 5, 6),
-	POINT2D(CUIEventPoint2D::new, "Point2D", "p2", 4, 5),
-	ELLIPSOID(CUIEventEllipsoid::new, "Ellipsoid", "e", 4),
-	CYLINDER(CUIEventCylinder::new, "Cylinder", "cyl", 5),
-	MINMAX(CUIEventBounds::new, "Bounds", "mm", 2),
-	UPDATE(CUIEventUpdate::new, "Update", "u", 1),
-	POLYGON(CUIEventPolygon::new, "Polygon", "poly", 3, 99),
-	COLOUR(CUIEventColour::new, "Colour", "col", 4),
-	GRID(CUIEventGrid::new, "Grid", "grid", 1, 2);
+	SELECTION(0, CUIEventSelection::new, "Selection", "s", 1, 2),
+	POINT(1, CUIEventPoint3D::new, "Point3D", "p", 5, 6),
+	POINT2D(2, CUIEventPoint2D::new, "Point2D", "p2", 4, 5),
+	ELLIPSOID(3, CUIEventEllipsoid::new, "Ellipsoid", "e", 4),
+	CYLINDER(4, CUIEventCylinder::new, "Cylinder", "cyl", 5),
+	MINMAX(5, CUIEventBounds::new, "Bounds", "mm", 2),
+	UPDATE(6, CUIEventUpdate::new, "Update", "u", 1),
+	POLYGON(7, CUIEventPolygon::new, "Polygon", "poly", 3, 99),
+	COLOUR(8, CUIEventColour::new, "Colour", "col", 4),
+	GRID(9, CUIEventGrid::new, "Grid", "grid", 1, 2),
+	POINT_BATCH(10, CUIEventPoint3DBatch::new, "Point3DBatch", "ps", 4, Integer.MAX_VALUE),
+	POINT2D_BATCH(11, CUIEventPoint2DBatch::new, "Point2DBatch", "p2s", 3, Integer.MAX_VALUE),
+	POLYGON_BATCH(12, CUIEventPolygonBatch::new, "PolygonBatch", "polys", 4, Integer.MAX_VALUE);
 
 
+	private final int binaryId;
 	private final Function<CUIEventArgs, CUIEvent> maker;
 	private final String key;
 	private final String name;
 	private final int minParams;
 	private final int maxParams;
 	
-	private CUIEventType(Function<CUIEventArgs, CUIEvent> maker, String name, String key, int minParams, int maxParams)
+	private CUIEventType(int binaryId, Function<CUIEventArgs, CUIEvent> maker, String name, String key, int minParams, int maxParams)
 	{
+		this.binaryId = binaryId;
 		this.maker = maker;
 		this.name = name;
 		this.key = key;
@@ -50,15 +61,23 @@ public enum CUIEventType
 		this.maxParams = maxParams;
 	}
 	
-	private CUIEventType(Function<CUIEventArgs, CUIEvent> maker, String name, String key, int paramCount)
+	private CUIEventType(int binaryId, Function<CUIEventArgs, CUIEvent> maker, String name, String key, int paramCount)
 	{
-		this(maker, name, key, paramCount, paramCount);
+		this(binaryId, maker, name, key, paramCount, paramCount);
 	}
 
 	public CUIEvent make(final CUIEventArgs args) {
 		return this.maker.apply(args);
 	}
 
+	/**
+	 * Get the id of this event type in the binary protocol
+	 */
+	public int getBinaryId()
+	{
+		return this.binaryId;
+	}
+
 	public String getKey()
 	{
 		return this.key;
@@ -79,14 +98,59 @@ public enum CUIEventType
 		return this.minParams;
 	}
 
-	private static final Map<String, CUIEventType> BY_NAME = new HashMap<>();
+	/**
+	 * Keys must be shorter than this, so the lookup table stays small
+	 */
+	private static final int MAX_KEY_LENGTH = 8;
+	
+	/**
+	 * Event types indexed by the length and first character of their key, most
+	 * slots hold one type so a lookup compares at most a couple of keys
+	 */
+	private static final CUIEventType[][] BY_KEY = new CUIEventType[CUIEventType.MAX_KEY_LENGTH << 7][];
+
+	/**
+	 * Binary ids must be lower than this, so the lookup table stays small
+	 */
+	private static final int MAX_BINARY_ID = 64;
+
+	/**
+	 * Event types indexed by their binary id
+	 */
+	private static final CUIEventType[] BY_BINARY_ID = new CUIEventType[CUIEventType.MAX_BINARY_ID];
 
 	static {
-		for(CUIEventType type : values())
+		for (CUIEventType type : values())
 		{
-			BY_NAME.put(type.getKey(), type);
+			if (type.binaryId < 0 || type.binaryId >= CUIEventType.MAX_BINARY_ID || BY_BINARY_ID[type.binaryId] != null)
+			{
+				throw new IllegalStateException("Invalid or duplicate binary CUI event id " + type.binaryId);
+			}
+			BY_BINARY_ID[type.binaryId] = type;
+			
+			String key = type.getKey();
+			int index = CUIEventType.index(key.length(), key.charAt(0));
+			if (index < 0)
+			{
+				throw new IllegalStateException("Invalid CUI event key " + key);
+			}
+			
+			CUIEventType[] types = BY_KEY[index];
+			types = types == null ? new CUIEventType[1] : Arrays.copyOf(types, types.length + 1);
+			types[types.length - 1] = type;
+			BY_KEY[index] = types;
 		}
 	}
+	
+	private static int index(int length, int first)
+	{
+		if (length < 1 || length >= CUIEventType.MAX_KEY_LENGTH || first >= 0x80)
+		{
+			return -1;
+		}
+		
+		return (length << 7) | first;
+	}
 
 	/**
 	 * Get a CUI event type by key.
@@ -95,6 +159,50 @@ public enum CUIEventType
 	 * @return the appropriate event type, or null if none found
 	 */
 	public static CUIEventType named(final String key) {
-		return BY_NAME.get(key);
+		int index = key.isEmpty() ? -1 : CUIEventType.index(key.length(), key.charAt(0));
+		if (index >= 0 && BY_KEY[index] != null)
+		{
+			for (CUIEventType type : BY_KEY[index])
+			{
+				if (type.getKey().equals(key))
+				{
+					return type;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get a CUI event type by its id in the binary protocol.
+	 *
+	 * @param id binary event id
+	 * @return the event type, or null if no type has the id
+	 */
+	public static CUIEventType byBinaryId(final long id) {
+		return id >= 0 && id < CUIEventType.MAX_BINARY_ID ? BY_BINARY_ID[(int)id] : null;
+	}
+
+	/**
+	 * Get the CUI event type for a message, without allocating a string for
+	 * its key.
+	 *
+	 * @param message message to get the event type of
+	 * @return the appropriate event type, or null if none found
+	 */
+	public static CUIEventType of(final CUIMessage message) {
+		int length = message.getKeyLength();
+		int index = length == 0 ? -1 : CUIEventType.index(length, message.getKeyByte(0));
+		if (index >= 0 && BY_KEY[index] != null)
+		{
+			for (CUIEventType type : BY_KEY[index])
+			{
+				if (message.isKey(type.getKey()))
+				{
+					return type;
+				}
+			}
+		}
+		return null;
 	}
 }
@@ -0,0 +1,501 @@
+package com.mumfrey.worldeditcui.event;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A CUI message split into its event key and parameter fields. The message is
+ * scanned once and only the offsets of the fields are stored, numeric fields
+ * are parsed straight from the message bytes without creating strings, so a
+ * single instance can be reused for every message received.
+ *
+ * <p>Messages are read as UTF-8 bytes, the separators, keys and numbers are
+ * all ASCII so they are matched byte by byte. Only fields read as strings are
+ * decoded.</p>
+ *
+ * <p>Messages have the form <tt>[+]key|field|field...</tt>, a leading
+ * <tt>+</tt> marks an event for a multi selection. A message with nothing
+ * after the key separator has no fields.</p>
+ *
+ * <p>Records of the binary protocol are read into a message by
+ * {@link CUIBinaryReader}, which stores numeric fields as values instead of
+ * text. Events read both kinds of message the same way.</p>
+ */
+public final class CUIMessage
+{
+	/**
+	 * Powers of ten which are exactly representable as doubles
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Largest mantissa which is exactly representable as a double
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * Start offset of a field which is stored as a number
+	 */
+	private static final int NUMBER = -1;
+
+	private byte[] data = new byte[256];
+	private int length;
+	private boolean multi;
+	private int keyStart, keyEnd;
+	private int[] bounds = new int[32];
+	private double[] numbers = new double[16];
+	private int count;
+	private boolean binary;
+
+	/**
+	 * Split a message into fields, replacing the previous message
+	 *
+	 * @param message message to read
+	 * @return this message
+	 */
+	public CUIMessage read(String message)
+	{
+		byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+		this.ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, this.data, 0, bytes.length);
+		return this.tokenize(bytes.length);
+	}
+
+	/**
+	 * Split the readable bytes of a payload into fields, replacing the
+	 * previous message. The reader index of the payload is not changed.
+	 *
+	 * @param payload payload to read
+	 * @return this message
+	 */
+	public CUIMessage read(ByteBuf payload)
+	{
+		int length = payload.readableBytes();
+		this.ensureCapacity(length);
+		payload.getBytes(payload.readerIndex(), this.data, 0, length);
+		return this.tokenize(length);
+	}
+
+	private void ensureCapacity(int length)
+	{
+		if (this.data.length < length)
+		{
+			this.data = Arrays.copyOf(this.data, Math.max(length, this.data.length * 2));
+		}
+	}
+
+	private CUIMessage tokenize(int length)
+	{
+		byte[] data = this.data;
+		this.length = length;
+		this.binary = false;
+		this.multi = length > 0 && data[0] == '+';
+		this.keyStart = this.multi ? 1 : 0;
+		this.count = 0;
+
+		int separator = this.keyStart;
+		while (separator < length && data[separator] != '|')
+		{
+			separator++;
+		}
+
+		this.keyEnd = separator;
+		if (separator >= length - 1)
+		{
+			return this; // no separator, or no fields after it
+		}
+
+		int start = separator + 1;
+		for (int end = start; end <= length; end++)
+		{
+			if (end == length || data[end] == '|')
+			{
+				this.addField(start, end);
+				start = end + 1;
+			}
+		}
+
+		return this;
+	}
+
+	private void addField(int start, int end)
+	{
+		int offset = this.count * 2;
+		if (offset + 2 > this.bounds.length)
+		{
+			this.bounds = Arrays.copyOf(this.bounds, this.bounds.length * 2);
+		}
+
+		this.bounds[offset] = start;
+		this.bounds[offset + 1] = end;
+		this.count++;
+	}
+
+	/**
+	 * Start a message read from a binary record, replacing the previous
+	 * message. The key is stored as text so events are matched the same way
+	 * as text messages.
+	 */
+	void begin(CUIEventType type, boolean multi)
+	{
+		String key = type.getKey();
+		this.ensureCapacity(key.length());
+		for (int i = 0; i < key.length(); i++)
+		{
+			this.data[i] = (byte)key.charAt(i);
+		}
+
+		this.length = key.length();
+		this.binary = true;
+		this.multi = multi;
+		this.keyStart = 0;
+		this.keyEnd = key.length();
+		this.count = 0;
+	}
+
+	/**
+	 * Add a numeric field to a message read from a binary record
+	 */
+	void addNumber(double value)
+	{
+		if (this.count >= this.numbers.length)
+		{
+			this.numbers = Arrays.copyOf(this.numbers, this.numbers.length * 2);
+		}
+
+		this.numbers[this.count] = value;
+		this.addField(CUIMessage.NUMBER, CUIMessage.NUMBER);
+	}
+
+	/**
+	 * Add a text field to a message read from a binary record, reading the
+	 * UTF-8 bytes of the field from the payload
+	 */
+	void addString(ByteBuf payload, int index, int length)
+	{
+		int start = this.length;
+		this.ensureCapacity(start + length);
+		payload.getBytes(index, this.data, start, length);
+		this.length = start + length;
+		this.addField(start, this.length);
+	}
+
+	/**
+	 * Get the whole message, allocates a new string
+	 */
+	public String getMessage()
+	{
+		if (this.binary)
+		{
+			String key = (this.multi ? "+" : "") + this.getKey();
+			return this.count == 0 ? key : key + "|" + this.getFields();
+		}
+
+		return new String(this.data, 0, this.length, StandardCharsets.UTF_8);
+	}
+
+	public boolean isMulti()
+	{
+		return this.multi;
+	}
+
+	/**
+	 * Get whether the event key of this message is the specified key
+	 */
+	public boolean isKey(String key)
+	{
+		return this.matches(this.keyStart, this.keyEnd, key, false);
+	}
+
+	public int getKeyLength()
+	{
+		return this.keyEnd - this.keyStart;
+	}
+
+	/**
+	 * Get a byte of the event key, from 0 to 255
+	 */
+	public int getKeyByte(int index)
+	{
+		if (index < 0 || index >= this.getKeyLength())
+		{
+			throw new IndexOutOfBoundsException("Key byte " + index + " of " + this.getKeyLength());
+		}
+
+		return this.data[this.keyStart + index] & 0xFF;
+	}
+
+	/**
+	 * Get the event key, allocates a new string
+	 */
+	public String getKey()
+	{
+		return this.decode(this.keyStart, this.keyEnd);
+	}
+
+	public int getFieldCount()
+	{
+		return this.count;
+	}
+
+	/**
+	 * Get the text of all the fields, separators included, allocates a new
+	 * string
+	 */
+	public String getFields()
+	{
+		if (this.binary)
+		{
+			StringBuilder fields = new StringBuilder();
+			for (int i = 0; i < this.count; i++)
+			{
+				fields.append(i > 0 ? "|" : "").append(this.getString(i));
+			}
+			return fields.toString();
+		}
+
+		return this.count == 0 ? "" : this.decode(this.start(0), this.end(this.count - 1));
+	}
+
+	/**
+	 * Get a field as a string, allocates a new string
+	 */
+	public String getString(int index)
+	{
+		if (this.isNumber(index))
+		{
+			double value = this.numbers[index];
+			return value == (long)value ? Long.toString((long)value) : Double.toString(value);
+		}
+
+		return this.decode(this.start(index), this.end(index));
+	}
+
+	/**
+	 * Get whether a field is exactly the specified text
+	 */
+	public boolean isField(int index, String text)
+	{
+		if (this.isNumber(index))
+		{
+			return CUIMessage.isNumeric(text) && text.equals(this.getString(index));
+		}
+
+		return this.matches(this.start(index), this.end(index), text, false);
+	}
+
+	/**
+	 * Get whether a field is the specified text, ignoring case
+	 */
+	public boolean isFieldIgnoreCase(int index, String text)
+	{
+		if (this.isNumber(index))
+		{
+			return CUIMessage.isNumeric(text) && text.equalsIgnoreCase(this.getString(index));
+		}
+
+		return this.matches(this.start(index), this.end(index), text, true);
+	}
+
+	/**
+	 * Get whether a field was read from a binary record as a number
+	 */
+	private boolean isNumber(int index)
+	{
+		return this.start(index) == CUIMessage.NUMBER;
+	}
+
+	/**
+	 * Quick check for text which could be a number, so comparing a numeric
+	 * field against words does not allocate
+	 */
+	private static boolean isNumeric(String text)
+	{
+		if (text.isEmpty())
+		{
+			return false;
+		}
+
+		char first = text.charAt(0);
+		return first == '-' || (first >= '0' && first <= '9');
+	}
+
+	/**
+	 * Read a field as an integer. Fields with a fractional part are truncated
+	 * towards zero, as servers sometimes send whole numbers as decimals.
+	 *
+	 * @throws NumberFormatException if the field is not a number
+	 */
+	public int getInt(int index)
+	{
+		if (this.isNumber(index))
+		{
+			return (int)this.numbers[index];
+		}
+
+		byte[] data = this.data;
+		int pos = this.start(index), end = this.end(index);
+		boolean negative = pos < end && data[pos] == '-';
+		if (negative || (pos < end && data[pos] == '+'))
+		{
+			pos++;
+		}
+
+		int digitsStart = pos;
+		long value = 0;
+		for (; pos < end; pos++)
+		{
+			int c = data[pos];
+			if (c < '0' || c > '9')
+			{
+				break;
+			}
+
+			value = value * 10 + (c - '0');
+			if (value > Integer.MAX_VALUE + 1L)
+			{
+				return (int)this.parseDouble(index); // out of range, saturate like a cast
+			}
+		}
+
+		boolean digits = pos > digitsStart;
+		if (pos < end && data[pos] == '.')
+		{
+			while (++pos < end && data[pos] >= '0' && data[pos] <= '9')
+			{
+				digits = true;
+			}
+		}
+
+		if (pos != end || !digits)
+		{
+			return (int)this.parseDouble(index); // exponents, NaN and malformed input
+		}
+
+		return (int)Math.max(Math.min(negative ? -value : value, Integer.MAX_VALUE), Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Read a field as a double
+	 *
+	 * @throws NumberFormatException if the field is not a number
+	 */
+	public double getDouble(int index)
+	{
+		if (this.isNumber(index))
+		{
+			return this.numbers[index];
+		}
+
+		byte[] data = this.data;
+		int pos = this.start(index), end = this.end(index);
+		boolean negative = pos < end && data[pos] == '-';
+		if (negative || (pos < end && data[pos] == '+'))
+		{
+			pos++;
+		}
+
+		long mantissa = 0;
+		int scale = 0, digits = 0;
+		boolean point = false;
+		for (; pos < end; pos++)
+		{
+			int c = data[pos];
+			if (c == '.' && !point)
+			{
+				point = true;
+				continue;
+			}
+
+			if (c < '0' || c > '9')
+			{
+				break;
+			}
+
+			mantissa = mantissa * 10 + (c - '0');
+			digits++;
+			if (point)
+			{
+				scale++;
+			}
+
+			if (mantissa >= CUIMessage.MAX_EXACT_MANTISSA)
+			{
+				return this.parseDouble(index);
+			}
+		}
+
+		// Both the mantissa and the power of ten are exact, so one division
+		// gives the correctly rounded result
+		if (pos != end || digits == 0 || scale >= CUIMessage.POWERS_OF_TEN.length)
+		{
+			return this.parseDouble(index);
+		}
+
+		double value = mantissa / CUIMessage.POWERS_OF_TEN[scale];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Compare part of the message with ASCII text
+	 */
+	private boolean matches(int start, int end, String text, boolean ignoreCase)
+	{
+		if (text.length() != end - start)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < text.length(); i++)
+		{
+			char expected = text.charAt(i), actual = (char)(this.data[start + i] & 0xFF);
+			if (expected != actual && (!ignoreCase || Character.toLowerCase(expected) != Character.toLowerCase(actual)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private String decode(int start, int end)
+	{
+		return new String(this.data, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	private double parseDouble(int index)
+	{
+		return Double.parseDouble(this.getString(index));
+	}
+
+	private int start(int index)
+	{
+		this.checkIndex(index);
+		return this.bounds[index * 2];
+	}
+
+	private int end(int index)
+	{
+		this.checkIndex(index);
+		return this.bounds[index * 2 + 1];
+	}
+
+	private void checkIndex(int index)
+	{
+		if (index < 0 || index >= this.count)
+		{
+			throw new IndexOutOfBoundsException("Field " + index + " of " + this.count);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return this.getMessage();
+	}
+}
@@ -14,9 +14,13 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventBounds extends CUIEvent
 {
+	private final int min, max;
+	
 	public CUIEventBounds(CUIEventArgs args)
 	{
 		super(args);
+		this.min = args.getMessage().getInt(0);
+		this.max = args.getMessage().getInt(1);
 	}
 	
 	@Override
@@ -25,6 +29,12 @@ public class CUIEventBounds extends CUIEvent
 		return CUIEventType.MINMAX;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(0);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -35,9 +45,7 @@ public class CUIEventBounds extends CUIEvent
 			return null;
 		}
 		
-		int min = this.getInt(0);
-		int max = this.getInt(1);
-		selection.setMinMax(min, max);
+		selection.setMinMax(this.min, this.max);
 		this.controller.getDebugger().debug("Expanding/contracting selection.");
 		
 		return null;
@@ -4,6 +4,7 @@ import com.mumfrey.worldeditcui.config.Colour;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.CustomStyle;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.region.Region;
@@ -15,9 +16,25 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventColour extends CUIEvent
 {
+	/**
+	 * Colours sent by the server, null where a colour could not be parsed
+	 */
+	private final Colour[] colours;
+	
 	public CUIEventColour(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.colours = new Colour[params.getFieldCount()];
+		for (int i = 0; i < this.colours.length; i++)
+		{
+			String str = params.getString(i);
+			if (!str.startsWith("#"))
+			{
+				str = "#" + str;
+			}
+			this.colours[i] = Colour.parse(str, null);
+		}
 	}
 	
 	@Override
@@ -27,14 +44,20 @@ public class CUIEventColour extends CUIEvent
 	}
 	
 	@Override
-	public void prepare()
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(0);
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
 	{
 		if (!this.multi)
 		{
 			throw new IllegalStateException("COLOUR event is not valid for non-multi selections");
 		}
 		
-		super.prepare();
+		super.prepare(params);
 	}
 	
 	@Override
@@ -52,13 +75,8 @@ public class CUIEventColour extends CUIEvent
 
 		for (int i = 0; i < defaultStyles.length; i++)
 		{
-			String str = this.getString(i);
-			if (!str.startsWith("#"))
-			{
-				str = "#" + str;
-			}
-			styles[i] = new CustomStyle(Colour.parse(str, defaultStyles[i].getColour()));
-			
+			Colour colour = i < this.colours.length ? this.colours[i] : null;
+			styles[i] = new CustomStyle(colour != null ? colour : defaultStyles[i].getColour());
 		}
 		
 		selection.setStyles(styles);
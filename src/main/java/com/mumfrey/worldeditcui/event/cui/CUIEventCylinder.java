@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.event.cui;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
@@ -14,9 +15,18 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventCylinder extends CUIEvent
 {
+	private final int x, y, z;
+	private final double radX, radZ;
+	
 	public CUIEventCylinder(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.x = params.getInt(0);
+		this.y = params.getInt(1);
+		this.z = params.getInt(2);
+		this.radX = params.getDouble(3);
+		this.radZ = params.getDouble(4);
 	}
 	
 	@Override
@@ -25,6 +35,12 @@ public class CUIEventCylinder extends CUIEvent
 		return CUIEventType.CYLINDER;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(0);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -35,14 +51,8 @@ public class CUIEventCylinder extends CUIEvent
 			return null;
 		}
 		
-		int x = this.getInt(0);
-		int y = this.getInt(1);
-		int z = this.getInt(2);
-		double radX = this.getDouble(3);
-		double radZ = this.getDouble(4);
-		
-		selection.setCylinderCenter(x, y, z);
-		selection.setCylinderRadius(radX, radZ);
+		selection.setCylinderCenter(this.x, this.y, this.z);
+		selection.setCylinderRadius(this.radX, this.radZ);
 		
 		this.controller.getDebugger().debug("Setting centre/radius");
 		
@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.event.cui;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
@@ -14,9 +15,28 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventEllipsoid extends CUIEvent
 {
+	private final int id;
+	private final double x, y, z;
+	
 	public CUIEventEllipsoid(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.id = params.getInt(0);
+		
+		// The centre is a block position, the radii are fractional
+		if (this.id == 0)
+		{
+			this.x = params.getInt(1);
+			this.y = params.getInt(2);
+			this.z = params.getInt(3);
+		}
+		else
+		{
+			this.x = params.getDouble(1);
+			this.y = params.getDouble(2);
+			this.z = params.getDouble(3);
+		}
 	}
 	
 	@Override
@@ -25,6 +45,12 @@ public class CUIEventEllipsoid extends CUIEvent
 		return CUIEventType.ELLIPSOID;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(this.id);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -35,22 +61,13 @@ public class CUIEventEllipsoid extends CUIEvent
 			return null;
 		}
 		
-		
-		int id = this.getInt(0);
-		
-		if (id == 0)
+		if (this.id == 0)
 		{
-			int x = this.getInt(1);
-			int y = this.getInt(2);
-			int z = this.getInt(3);
-			selection.setEllipsoidCenter(x, y, z);
+			selection.setEllipsoidCenter((int)this.x, (int)this.y, (int)this.z);
 		}
-		else if (id == 1)
+		else if (this.id == 1)
 		{
-			double x = this.getDouble(1);
-			double y = this.getDouble(2);
-			double z = this.getDouble(3);
-			selection.setEllipsoidRadii(x, y, z);
+			selection.setEllipsoidRadii(this.x, this.y, this.z);
 		}
 		
 		this.controller.getDebugger().debug("Setting centre/radius");
@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.event.cui;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.RenderStyle.RenderType;
 import com.mumfrey.worldeditcui.render.region.Region;
 
@@ -13,9 +14,15 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventGrid extends CUIEvent
 {
+	private final double spacing;
+	private final boolean cull;
+	
 	public CUIEventGrid(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.spacing = params.getDouble(0);
+		this.cull = params.getFieldCount() > 1 && params.isFieldIgnoreCase(1, "cull");
 	}
 	
 	@Override
@@ -25,14 +32,20 @@ public class CUIEventGrid extends CUIEvent
 	}
 	
 	@Override
-	public void prepare()
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(0);
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
 	{
 		if (!this.multi)
 		{
 			throw new IllegalStateException("GRID event is not valid for non-multi selections");
 		}
 		
-		super.prepare();
+		super.prepare(params);
 	}
 	
 	@Override
@@ -45,15 +58,8 @@ public class CUIEventGrid extends CUIEvent
 			return null;
 		}
 		
-		selection.setGridSpacing(this.getDouble(0));
-		
-		RenderType renderType = RenderType.ANY;
-		if (this.params.length > 1 && "cull".equalsIgnoreCase(this.getString(1)))
-		{
-			renderType = RenderType.VISIBLE;
-		}
-		
-		selection.setRenderType(renderType);
+		selection.setGridSpacing(this.spacing);
+		selection.setRenderType(this.cull ? RenderType.VISIBLE : RenderType.ANY);
 		return null;
 	}
 }
@@ -1,7 +1,9 @@
 package com.mumfrey.worldeditcui.event.cui;
 
+import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
@@ -11,11 +13,18 @@ import com.mumfrey.worldeditcui.render.region.Region;
  * @author yetanotherx
  * @author Adam Mummery-Smith
  */
-public class CUIEventPoint2D extends CUIEventPoint3D
+public class CUIEventPoint2D extends CUIEvent
 {
+	private final int id, x, z;
+	
 	public CUIEventPoint2D(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.id = params.getInt(0);
+		this.x = params.getInt(1);
+		this.z = params.getInt(2);
+		// the fourth parameter is the region size, which is not used
 	}
 	
 	@Override
@@ -24,6 +33,19 @@ public class CUIEventPoint2D extends CUIEventPoint3D
 		return CUIEventType.POINT2D;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(this.id);
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
+	{
+		super.prepare(params);
+		CUIEvent.checkPointId(params, 0);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -34,14 +56,9 @@ public class CUIEventPoint2D extends CUIEventPoint3D
 			return null;
 		}
 
-		int id = this.getInt(0);
-		int x = this.getInt(1);
-		int z = this.getInt(2);
-		@SuppressWarnings("unused")
-		int regionSize = this.getInt(3);
-		selection.setPolygonPoint(id, x, z);
+		selection.setPolygonPoint(this.id, this.x, this.z);
 		
-		this.controller.getDebugger().debug("Setting point2d #" + id);
+		this.controller.getDebugger().debug("Setting point2d #%d", this.id);
 		
 		return null;
 	}
@@ -0,0 +1,79 @@
+package com.mumfrey.worldeditcui.event.cui;
+
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.event.CUIEventArgs;
+import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
+import com.mumfrey.worldeditcui.render.region.Region;
+
+/**
+ * Called when a batch of poly points is received, the parameters are the id,
+ * x and z of each point in turn
+ */
+public class CUIEventPoint2DBatch extends CUIEvent
+{
+	private static final int FIELDS_PER_POINT = 3;
+	
+	private final int[] ids, xs, zs;
+	
+	public CUIEventPoint2DBatch(CUIEventArgs args)
+	{
+		super(args);
+		CUIMessage params = args.getMessage();
+		int count = params.getFieldCount() / CUIEventPoint2DBatch.FIELDS_PER_POINT;
+		this.ids = new int[count];
+		this.xs = new int[count];
+		this.zs = new int[count];
+		for (int i = 0, field = 0; i < count; i++)
+		{
+			this.ids[i] = params.getInt(field++);
+			this.xs[i] = params.getInt(field++);
+			this.zs[i] = params.getInt(field++);
+		}
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.POINT2D_BATCH;
+	}
+	
+	@Override
+	public boolean isCoalescingBarrier()
+	{
+		return true;
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
+	{
+		super.prepare(params);
+		
+		if (params.getFieldCount() % CUIEventPoint2DBatch.FIELDS_PER_POINT != 0)
+		{
+			throw new IllegalArgumentException("Point2D batch needs " + CUIEventPoint2DBatch.FIELDS_PER_POINT + " parameters per point but received " + params.getFieldCount());
+		}
+		
+		for (int field = 0; field < params.getFieldCount(); field += CUIEventPoint2DBatch.FIELDS_PER_POINT)
+		{
+			CUIEvent.checkPointId(params, field);
+		}
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		selection.setPolygonPoints(this.ids, this.xs, this.zs);
+		
+		this.controller.getDebugger().debug("Setting %d point2ds", this.ids.length);
+		
+		return null;
+	}
+}
@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.event.cui;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
@@ -16,9 +17,29 @@ import net.minecraft.entity.Entity;
  */
 public class CUIEventPoint3D extends CUIEvent
 {
+	private final int id;
+	private final boolean latch;
+	private final double x, y, z, distance;
+	
 	public CUIEventPoint3D(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.id = params.getInt(0);
+		this.latch = this.multi && params.isField(1, "~") && params.isField(2, "~") && params.isField(3, "~");
+		
+		if (this.latch)
+		{
+			this.x = this.y = this.z = 0.0;
+			this.distance = params.getDouble(4);
+		}
+		else
+		{
+			this.x = params.getDouble(1);
+			this.y = params.getDouble(2);
+			this.z = params.getDouble(3);
+			this.distance = 0.0;
+		}
 	}
 	
 	@Override
@@ -27,6 +48,19 @@ public class CUIEventPoint3D extends CUIEvent
 		return CUIEventType.POINT;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(this.id);
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
+	{
+		super.prepare(params);
+		CUIEvent.checkPointId(params, 0);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -37,25 +71,19 @@ public class CUIEventPoint3D extends CUIEvent
 			return null;
 		}
 
-		int id = this.getInt(0);
-		
-		if (this.multi && "~".equals(this.getString(1)) && "~".equals(this.getString(2)) && "~".equals(this.getString(3)))
+		if (this.latch)
 		{
 			MinecraftClient mc = MinecraftClient.getInstance();
 			Entity entity = mc.getCameraEntity();
 			double hitDistance = mc.interactionManager.getReachDistance();
 			
-			selection.setCuboidVertexLatch(id, entity, Math.min(Math.max(this.getDouble(4), hitDistance), 256.0));
-			this.controller.getDebugger().debug("Setting vertex latch #" + id);
+			selection.setCuboidVertexLatch(this.id, entity, Math.min(Math.max(this.distance, hitDistance), 256.0));
+			this.controller.getDebugger().debug("Setting vertex latch #%d", this.id);
 			return null;
 		}
 		
-		double x = this.getDouble(1);
-		double y = this.getDouble(2);
-		double z = this.getDouble(3);
-		
-		selection.setCuboidPoint(id, x, y, z);
-		this.controller.getDebugger().debug("Setting point #" + id);
+		selection.setCuboidPoint(this.id, this.x, this.y, this.z);
+		this.controller.getDebugger().debug("Setting point #%d", this.id);
 		
 		return null;
 	}
@@ -0,0 +1,81 @@
+package com.mumfrey.worldeditcui.event.cui;
+
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.event.CUIEventArgs;
+import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
+import com.mumfrey.worldeditcui.render.region.Region;
+
+/**
+ * Called when a batch of points is received, the parameters are the id, x, y
+ * and z of each point in turn. Vertex latches are only sent as single points.
+ */
+public class CUIEventPoint3DBatch extends CUIEvent
+{
+	private static final int FIELDS_PER_POINT = 4;
+	
+	private final int[] ids;
+	private final double[] xs, ys, zs;
+	
+	public CUIEventPoint3DBatch(CUIEventArgs args)
+	{
+		super(args);
+		CUIMessage params = args.getMessage();
+		int count = params.getFieldCount() / CUIEventPoint3DBatch.FIELDS_PER_POINT;
+		this.ids = new int[count];
+		this.xs = new double[count];
+		this.ys = new double[count];
+		this.zs = new double[count];
+		for (int i = 0, field = 0; i < count; i++)
+		{
+			this.ids[i] = params.getInt(field++);
+			this.xs[i] = params.getDouble(field++);
+			this.ys[i] = params.getDouble(field++);
+			this.zs[i] = params.getDouble(field++);
+		}
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.POINT_BATCH;
+	}
+	
+	@Override
+	public boolean isCoalescingBarrier()
+	{
+		return true;
+	}
+	
+	@Override
+	protected void prepare(CUIMessage params)
+	{
+		super.prepare(params);
+		
+		if (params.getFieldCount() % CUIEventPoint3DBatch.FIELDS_PER_POINT != 0)
+		{
+			throw new IllegalArgumentException("Point3D batch needs " + CUIEventPoint3DBatch.FIELDS_PER_POINT + " parameters per point but received " + params.getFieldCount());
+		}
+		
+		for (int field = 0; field < params.getFieldCount(); field += CUIEventPoint3DBatch.FIELDS_PER_POINT)
+		{
+			CUIEvent.checkPointId(params, field);
+		}
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		selection.setCuboidPoints(this.ids, this.xs, this.ys, this.zs);
+		this.controller.getDebugger().debug("Setting %d points", this.ids.length);
+		
+		return null;
+	}
+}
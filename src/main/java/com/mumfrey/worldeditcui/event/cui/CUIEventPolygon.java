@@ -3,6 +3,7 @@ package com.mumfrey.worldeditcui.event.cui;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
@@ -14,9 +15,17 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventPolygon extends CUIEvent
 {
+	private final int[] vertexIds;
+	
 	public CUIEventPolygon(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.vertexIds = new int[params.getFieldCount()];
+		for (int i = 0; i < this.vertexIds.length; ++i)
+		{
+			this.vertexIds[i] = params.getInt(i);
+		}
 	}
 	
 	@Override
@@ -35,13 +44,7 @@ public class CUIEventPolygon extends CUIEvent
 			return null;
 		}
 
-		final int[] vertexIds = new int[this.params.length];
-		for (int i = 0; i < this.params.length; ++i)
-		{
-			vertexIds[i] = this.getInt(i);
-		}
-		
-		selection.addPolygon(vertexIds);
+		selection.addPolygon(this.vertexIds);
 		//this.controller.getDebugger().debug("Setting point #" + id);
 		
 		return null;
@@ -0,0 +1,70 @@
+package com.mumfrey.worldeditcui.event.cui;
+
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.event.CUIEventArgs;
+import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
+import com.mumfrey.worldeditcui.render.region.Region;
+
+/**
+ * Called when a batch of polygons is received, each polygon is its number of
+ * vertices followed by the vertex ids
+ */
+public class CUIEventPolygonBatch extends CUIEvent
+{
+	private final int[][] polygons;
+	
+	public CUIEventPolygonBatch(CUIEventArgs args)
+	{
+		super(args);
+		CUIMessage params = args.getMessage();
+		
+		int count = 0;
+		for (int field = 0; field < params.getFieldCount(); count++)
+		{
+			int size = params.getInt(field);
+			if (size < CUIEventType.POLYGON.getMinParameters() || size > CUIEventType.POLYGON.getMaxParameters() || field + size >= params.getFieldCount())
+			{
+				throw new IllegalArgumentException("Invalid polygon size " + size + " at parameter " + field + " of polygon batch");
+			}
+			field += size + 1;
+		}
+		
+		this.polygons = new int[count][];
+		for (int i = 0, field = 0; i < count; i++)
+		{
+			int[] vertexIds = this.polygons[i] = new int[params.getInt(field++)];
+			for (int vertex = 0; vertex < vertexIds.length; vertex++)
+			{
+				vertexIds[vertex] = params.getInt(field++);
+			}
+		}
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.POLYGON_BATCH;
+	}
+	
+	@Override
+	public boolean isCoalescingBarrier()
+	{
+		return true;
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		selection.addPolygons(this.polygons);
+		
+		return null;
+	}
+}
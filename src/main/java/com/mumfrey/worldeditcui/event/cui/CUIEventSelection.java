@@ -5,6 +5,7 @@ import java.util.UUID;
 import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
 import com.mumfrey.worldeditcui.event.CUIEventType;
+import com.mumfrey.worldeditcui.event.CUIMessage;
 import com.mumfrey.worldeditcui.render.region.Region;
 
 /**
@@ -16,9 +17,15 @@ import com.mumfrey.worldeditcui.render.region.Region;
  */
 public class CUIEventSelection extends CUIEvent
 {
+	private final String key;
+	private final UUID id;
+	
 	public CUIEventSelection(CUIEventArgs args)
 	{
 		super(args);
+		CUIMessage params = args.getMessage();
+		this.key = params.getString(0);
+		this.id = this.multi && params.getFieldCount() > 1 ? UUID.fromString(params.getString(1)) : null;
 	}
 	
 	@Override
@@ -27,31 +34,35 @@ public class CUIEventSelection extends CUIEvent
 		return CUIEventType.SELECTION;
 	}
 	
+	@Override
+	public boolean isSelectionChange()
+	{
+		return true;
+	}
+	
 	@Override
 	public String raise()
 	{
-		String key = this.getString(0);
-		Region selection = this.controller.getSelectionProvider().createSelection(key);
+		Region selection = this.controller.getSelectionProvider().createSelection(this.key);
 		
 		if (selection != null)
 		{
 			selection.initialise();
 		}
 		
-		UUID id = null;
-		if (this.multi)
+		if (this.multi && this.id == null)
 		{
-			if (selection == null && this.params.length < 2)
+			if (selection != null)
 			{
-				this.controller.getDebugger().debug("Received clear selection event.");
-				this.controller.clearRegions();
-				return null;
+				throw new IllegalArgumentException("Multi selection event for " + this.key + " has no region id");
 			}
 			
-			id = UUID.fromString(this.getString(1));
+			this.controller.getDebugger().debug("Received clear selection event.");
+			this.controller.clearRegions();
+			return null;
 		}
 		
-		this.controller.setSelection(id, selection);
+		this.controller.setSelection(this.id, selection);
 		this.controller.getDebugger().debug("Received selection event, initializing new region instance.");
 		
 		return null;
@@ -24,6 +24,12 @@ public class CUIEventUpdate extends CUIEvent
 		return CUIEventType.UPDATE;
 	}
 	
+	@Override
+	public long getCoalesceKey()
+	{
+		return this.coalesceKey(0);
+	}
+	
 	@Override
 	public String raise()
 	{
@@ -1,10 +1,19 @@
 package com.mumfrey.worldeditcui.event.listeners;
 
 import com.mumfrey.worldeditcui.WorldEditCUI;
+import com.mumfrey.worldeditcui.event.CUIBinaryReader;
+import com.mumfrey.worldeditcui.event.CUIEvent;
 import com.mumfrey.worldeditcui.event.CUIEventArgs;
+import com.mumfrey.worldeditcui.event.CUIMessage;
+import io.netty.buffer.ByteBuf;
+
+import java.util.function.Consumer;
 
 /**
- * Listener class for incoming plugin channel messages
+ * Listener class for incoming plugin channel messages. Payloads are decoded
+ * into events on the network thread by {@link #decode}, the events are then
+ * raised on the client thread. Payloads are text, or binary if the binary
+ * protocol was offered in the handshake.
  * 
  * @author lahwran
  * @author yetanotherx
@@ -14,28 +23,88 @@ public class CUIListenerChannel
 {
 	private WorldEditCUI controller;
 	
+	/**
+	 * Reused for every message, messages are decoded one at a time
+	 */
+	private final CUIMessage reader = new CUIMessage();
+	
+	private final CUIEventArgs args;
+	
+	private final CUIBinaryReader binaryReader = new CUIBinaryReader();
+	
+	/**
+	 * Whether the binary protocol was offered to the server in the handshake,
+	 * set on the client thread
+	 */
+	private volatile boolean binaryProtocol;
+	
 	public CUIListenerChannel(WorldEditCUI controller)
 	{
 		this.controller = controller;
+		this.args = new CUIEventArgs(controller, this.reader);
 	}
 	
-	public void onMessage(String message)
+	/**
+	 * Set whether binary payloads are accepted, when the binary protocol is
+	 * offered in the handshake
+	 */
+	public void setBinaryProtocol(boolean binaryProtocol)
 	{
-		String[] split = message.split("\\|", -1);
-		boolean multi = split[0].startsWith("+");
-		String type = split[0].substring(multi ? 1 : 0);
-		String args = message.substring(type.length() + (multi ? 2 : 1));
+		this.binaryProtocol = binaryProtocol;
+	}
+	
+	/**
+	 * Decode a payload received from the server, called on the network thread.
+	 * A text payload holds one event, a binary payload may hold many.
+	 *
+	 * @param payload message payload, its reader index is not changed
+	 * @param sink receives the decoded events to raise on the client thread,
+	 *      invalid events are skipped
+	 * @return number of events decoded
+	 */
+	public int decode(ByteBuf payload, Consumer<CUIEvent> sink)
+	{
+		boolean debug = this.controller.getConfiguration().isDebugMode();
+		if (!CUIBinaryReader.isBinary(payload))
+		{
+			this.reader.read(payload);
+			if (debug)
+			{
+				this.controller.getDebugger().debug("Received CUI event from server: " + this.reader);
+			}
+			
+			return this.accept(sink);
+		}
 		
-		this.controller.getDebugger().debug("Received CUI event from server: " + message);
+		if (!this.binaryProtocol)
+		{
+			this.controller.getDebugger().debug("Ignoring binary CUI payload, the binary protocol was not negotiated");
+			return 0;
+		}
 		
-		try
+		if (debug)
 		{
-			CUIEventArgs eventArgs = new CUIEventArgs(this.controller, multi, type, args.split("\\|", -1));
-			this.controller.getDispatcher().raiseEvent(eventArgs);
+			this.controller.getDebugger().debug("Received binary CUI payload from server, " + payload.readableBytes() + " bytes");
 		}
-		catch (Exception ex)
+		
+		int count = 0;
+		this.binaryReader.begin(payload);
+		while (this.binaryReader.next(this.reader))
 		{
-//			ex.printStackTrace();
+			count += this.accept(sink);
 		}
+		return count;
+	}
+	
+	private int accept(Consumer<CUIEvent> sink)
+	{
+		CUIEvent event = this.controller.getDispatcher().createEvent(this.args);
+		if (event == null)
+		{
+			return 0;
+		}
+		
+		sink.accept(event);
+		return 1;
 	}
 }
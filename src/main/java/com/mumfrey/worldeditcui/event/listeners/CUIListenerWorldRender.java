@@ -3,10 +3,13 @@ package com.mumfrey.worldeditcui.event.listeners;
 import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mumfrey.worldeditcui.WorldEditCUI;
-import com.mumfrey.worldeditcui.util.Vector3;
+import com.mumfrey.worldeditcui.config.CUIConfiguration;
+import com.mumfrey.worldeditcui.debug.RenderProfiler;
+import com.mumfrey.worldeditcui.render.RetainedBuffer;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Matrix4f;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 
@@ -22,20 +25,28 @@ public class CUIListenerWorldRender
 	private final WorldEditCUI controller;
 
 	private final MinecraftClient minecraft;
-	private final CUIRenderContext ctx = new CUIRenderContext();
+	private final CUIRenderContext ctx;
 
 	public CUIListenerWorldRender(WorldEditCUI controller, MinecraftClient minecraft)
 	{
 		this.controller = controller;
 		this.minecraft = minecraft;
+		this.ctx = new CUIRenderContext(controller.getDebugger().getProfiler());
 	}
 
 	@SuppressWarnings("deprecation") // RenderSystem/immediate mode GL use
-	public void onRender(final MatrixStack matrices, float partialTicks)
+	public void onRender(final MatrixStack matrices, final Matrix4f projection, float partialTicks)
 	{
+		CUIConfiguration config = this.controller.getConfiguration();
+		RenderProfiler profiler = this.ctx.profiler();
+		profiler.setEnabled(config.isShowProfiler() || config.isDebugMode());
+		profiler.beginFrame();
+
 		try
 		{
-			this.ctx.init(new Vector3(this.minecraft.gameRenderer.getCamera().getPos()), matrices, partialTicks);
+			this.ctx.init(this.minecraft.gameRenderer.getCamera().getPos(), matrices, partialTicks);
+			this.ctx.initProjection(projection, this.minecraft.options.fov, this.minecraft.getWindow().getFramebufferHeight(), config.isAdaptiveDetail());
+			this.ctx.initLayers(config.isLayerBand() ? config.getLayerBandSize() : 0, config.getLayerSpacing());
 			RenderSystem.glMultiTexCoord2f(GL13.GL_TEXTURE1, 240.0F, 240.0F);
 			RenderSystem.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
 			RenderSystem.enableBlend();
@@ -56,6 +67,8 @@ public class CUIListenerWorldRender
 				this.controller.getDebugger().error("Error while attempting to render WorldEdit CUI", e);
 			}
 
+			RetainedBuffer.sweep();
+
 			RenderSystem.depthFunc(GL11.GL_LEQUAL);
 			RenderSystem.popMatrix();
 
@@ -67,5 +80,11 @@ public class CUIListenerWorldRender
 		{
 			this.controller.getDebugger().error("Failed while preparing state for WorldEdit CUI", ex);
 		}
+		finally
+		{
+			profiler.endFrame();
+		}
+
+		this.controller.getDebugger().reportProfile();
 	}
 }
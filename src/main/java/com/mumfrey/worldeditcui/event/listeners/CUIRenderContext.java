@@ -1,21 +1,52 @@
 package com.mumfrey.worldeditcui.event.listeners;
 
+import com.mumfrey.worldeditcui.debug.RenderProfiler;
+import com.mumfrey.worldeditcui.render.ImmediateLineSink;
+import com.mumfrey.worldeditcui.render.LineBatcher;
+import com.mumfrey.worldeditcui.render.ViewFrustum;
 import com.mumfrey.worldeditcui.util.Vector3;
+import com.mumfrey.worldeditcui.util.Vector3m;
 import net.minecraft.client.render.RenderLayer;
 import net.minecraft.client.render.VertexConsumer;
 import net.minecraft.client.render.VertexConsumerProvider;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Matrix4f;
+import net.minecraft.util.math.Vec3d;
 
 import java.util.function.Consumer;
 
 /**
  * State related to CUI rendering.
+ *
+ * <p>The context is reused from frame to frame, and so is everything it holds,
+ * so that drawing a scene which has not changed allocates nothing.</p>
  */
 public final class CUIRenderContext {
+    private final RenderProfiler profiler;
+    private final LineBatcher batcher;
+    private final ViewFrustum frustum = new ViewFrustum();
+    private final ImmediateLineSink immediateLines;
+    private final Vector3m camera = new Vector3m();
     private Vector3 cameraPos;
     private MatrixStack matrices;
     private float dt;
+    private double projectionScale;
+    private boolean adaptiveDetail;
+    private int layerBandSize;
+    private int layerSpacing;
 
+    public CUIRenderContext(final RenderProfiler profiler) {
+        this.profiler = profiler;
+        this.batcher = new LineBatcher(profiler);
+        this.immediateLines = new ImmediateLineSink(profiler);
+    }
+
+    /**
+     * Camera position for the current frame. Updated in place from one frame
+     * to the next, so it must be copied rather than kept.
+     *
+     * @return the camera position
+     */
     public Vector3 cameraPos() {
         return this.cameraPos;
     }
@@ -28,6 +59,82 @@ public final class CUIRenderContext {
         return this.dt;
     }
 
+    /**
+     * Camera frustum for the current frame.
+     *
+     * @return the frustum
+     */
+    public ViewFrustum frustum() {
+        return this.frustum;
+    }
+
+    /**
+     * Approximate on-screen size of an object seen from a distance.
+     *
+     * @param size size of the object, in blocks
+     * @param distance distance from the camera, in blocks
+     * @return size in pixels
+     */
+    public double projectedSize(final double size, final double distance) {
+        return size * this.projectionScale / Math.max(distance, 1.0);
+    }
+
+    /**
+     * Whether shapes should reduce their level of detail based on their
+     * size on screen.
+     *
+     * @return true if adaptive detail is enabled
+     */
+    public boolean adaptiveDetail() {
+        return this.adaptiveDetail;
+    }
+
+    /**
+     * Distance from the camera's height within which extruded shapes draw
+     * every layer.
+     *
+     * @return band size in blocks, or 0 to always draw every layer
+     */
+    public int layerBandSize() {
+        return this.layerBandSize;
+    }
+
+    /**
+     * Spacing of the layers extruded shapes draw outside the layer band.
+     *
+     * @return layer spacing in blocks
+     */
+    public int layerSpacing() {
+        return this.layerSpacing;
+    }
+
+    /**
+     * Profiler measuring the cost of the current frame.
+     *
+     * @return the render profiler
+     */
+    public RenderProfiler profiler() {
+        return this.profiler;
+    }
+
+    /**
+     * Batcher collecting the geometry drawn this frame.
+     *
+     * @return the line batcher
+     */
+    public LineBatcher batcher() {
+        return this.batcher;
+    }
+
+    /**
+     * Sink for lines which are drawn straight away rather than batched.
+     *
+     * @return the immediate line sink
+     */
+    public ImmediateLineSink immediateLines() {
+        return this.immediateLines;
+    }
+
     public void withCameraAt(final Vector3 pos, final Consumer<CUIRenderContext> action) {
         final Vector3 oldPos = this.cameraPos;
         this.cameraPos = pos;
@@ -38,12 +145,23 @@ public final class CUIRenderContext {
         }
     }
 
-    void init(final Vector3 cameraPos, final MatrixStack matrices, final float dt) {
-        this.cameraPos = cameraPos;
+    void init(final Vec3d cameraPos, final MatrixStack matrices, final float dt) {
+        this.cameraPos = this.camera.set(cameraPos);
         this.matrices = matrices;
         this.dt = dt;
     }
 
+    void initProjection(final Matrix4f projection, final double fov, final int viewportHeight, final boolean adaptiveDetail) {
+        this.frustum.update(this.cameraPos, this.matrices.peek().getModel(), projection);
+        this.projectionScale = viewportHeight / (2.0 * Math.tan(Math.toRadians(fov) / 2.0));
+        this.adaptiveDetail = adaptiveDetail;
+    }
+
+    void initLayers(final int layerBandSize, final int layerSpacing) {
+        this.layerBandSize = layerBandSize;
+        this.layerSpacing = layerSpacing;
+    }
+
     /**
      * Empty state. To be called at the end of a frame.
      */
@@ -0,0 +1,338 @@
+package com.mumfrey.worldeditcui.render;
+
+import net.minecraft.util.math.MathHelper;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of vertex positions making up the compiled geometry of a
+ * shape. Positions are stored relative to an origin (the first vertex
+ * emitted, rounded down to the block) so single precision is sufficient
+ * anywhere in the world. Line loops are expanded into explicit segments so the
+ * whole buffer can be drawn with a single primitive mode. Style changes are
+ * ignored, the buffer is styled by whoever draws it. The bounds of the
+ * vertices are tracked as they are added, for visibility tests.
+ *
+ * <p>Geometry which is drawn on its own is uploaded to a vertex buffer owned
+ * by the geometry, see {@link #retain}.</p>
+ */
+public final class GeometryBuffer implements LineSink
+{
+	private static final int INITIAL_CAPACITY = 64 * 3;
+
+	private final int mode;
+	private float[] data = new float[GeometryBuffer.INITIAL_CAPACITY];
+	private int size;
+	private int version;
+
+	private boolean hasOrigin;
+	private double originX, originY, originZ;
+	private float minX, minY, minZ, maxX, maxY, maxZ;
+
+	private int loopVertices;
+	private float firstX, firstY, firstZ, lastX, lastY, lastZ;
+
+	private RetainedBuffer retained;
+	private int retainedVersion;
+
+	/**
+	 * @param mode GL primitive mode the vertices will be drawn with, eg.
+	 *      {@link org.lwjgl.opengl.GL11#GL_LINES}
+	 */
+	public GeometryBuffer(int mode)
+	{
+		this.mode = mode;
+	}
+
+	/**
+	 * Discard all vertices, keeping the allocated storage
+	 */
+	public void reset()
+	{
+		this.version++;
+		this.size = 0;
+		this.hasOrigin = false;
+		this.loopVertices = 0;
+	}
+
+	/**
+	 * Get a counter which changes every time the buffer is reset or vertices
+	 * are added, used by consumers to find out whether the contents changed
+	 * since they last looked at them
+	 */
+	public int getVersion()
+	{
+		return this.version;
+	}
+
+	/**
+	 * Get a vertex buffer holding this geometry, uploading the geometry again
+	 * only if it changed since it was last uploaded. Must be called on the
+	 * render thread.
+	 */
+	RetainedBuffer retain()
+	{
+		if (this.retained == null)
+		{
+			this.retained = new RetainedBuffer();
+		}
+
+		if (!this.retained.isUploaded() || this.retainedVersion != this.version)
+		{
+			this.retained.upload(this);
+			this.retainedVersion = this.version;
+		}
+
+		return this.retained;
+	}
+
+	public int getMode()
+	{
+		return this.mode;
+	}
+
+	public int getVertexCount()
+	{
+		return this.size / 3;
+	}
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public float[] getData()
+	{
+		return this.data;
+	}
+
+	public double getOriginX()
+	{
+		return this.originX;
+	}
+
+	public double getOriginY()
+	{
+		return this.originY;
+	}
+
+	public double getOriginZ()
+	{
+		return this.originZ;
+	}
+
+	public double getMinX()
+	{
+		return this.originX + this.minX;
+	}
+
+	public double getMinY()
+	{
+		return this.originY + this.minY;
+	}
+
+	public double getMinZ()
+	{
+		return this.originZ + this.minZ;
+	}
+
+	public double getMaxX()
+	{
+		return this.originX + this.maxX;
+	}
+
+	public double getMaxY()
+	{
+		return this.originY + this.maxY;
+	}
+
+	public double getMaxZ()
+	{
+		return this.originZ + this.maxZ;
+	}
+
+	/**
+	 * Append a single vertex, in world coordinates
+	 */
+	public void vertex(double x, double y, double z)
+	{
+		this.ensureOrigin(x, y, z);
+		this.put((float)(x - this.originX), (float)(y - this.originY), (float)(z - this.originZ));
+	}
+
+	@Override
+	public void setStyle(LineStyle line)
+	{
+	}
+
+	/**
+	 * Append a line segment, in world coordinates
+	 */
+	@Override
+	public void line(double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		this.vertex(x1, y1, z1);
+		this.vertex(x2, y2, z2);
+	}
+
+	/**
+	 * Append the contents of another buffer, rebasing its vertices onto this
+	 * buffer's origin
+	 */
+	public void append(GeometryBuffer other)
+	{
+		this.append(other, 0, other.getVertexCount());
+	}
+
+	/**
+	 * Append a range of vertices from another buffer, rebasing them onto this
+	 * buffer's origin
+	 *
+	 * @param other buffer to copy from
+	 * @param first index of the first vertex to copy
+	 * @param count number of vertices to copy
+	 */
+	public void append(GeometryBuffer other, int first, int count)
+	{
+		if (count <= 0)
+		{
+			return;
+		}
+
+		this.ensureOrigin(other.originX, other.originY, other.originZ);
+		float dx = (float)(other.originX - this.originX);
+		float dy = (float)(other.originY - this.originY);
+		float dz = (float)(other.originZ - this.originZ);
+
+		int length = count * 3;
+		if (this.size + length > this.data.length)
+		{
+			this.data = Arrays.copyOf(this.data, Math.max(this.size + length, this.data.length * 2));
+		}
+
+		float[] src = other.data;
+		for (int i = first * 3, end = i + length; i < end; i += 3)
+		{
+			this.put(src[i] + dx, src[i + 1] + dy, src[i + 2] + dz);
+		}
+	}
+
+	/**
+	 * Replay the contents of this buffer into another sink, in world
+	 * coordinates: line segments for {@link org.lwjgl.opengl.GL11#GL_LINES},
+	 * otherwise one loop per quad
+	 *
+	 * @param sink sink to emit the geometry to
+	 * @param offsetY vertical offset to add to every vertex
+	 */
+	public void emit(LineSink sink, double offsetY)
+	{
+		float[] data = this.data;
+		double x = this.originX, y = this.originY + offsetY, z = this.originZ;
+		if (this.mode == GL11.GL_LINES)
+		{
+			for (int i = 0; i + 6 <= this.size; i += 6)
+			{
+				sink.line(x + data[i], y + data[i + 1], z + data[i + 2], x + data[i + 3], y + data[i + 4], z + data[i + 5]);
+			}
+			return;
+		}
+
+		for (int i = 0; i + 12 <= this.size; i += 12)
+		{
+			sink.beginLoop();
+			for (int vertex = i; vertex < i + 12; vertex += 3)
+			{
+				sink.loopVertex(x + data[vertex], y + data[vertex + 1], z + data[vertex + 2]);
+			}
+			sink.endLoop();
+		}
+	}
+
+	/**
+	 * Start a new line loop, vertices are supplied with {@link #loopVertex}
+	 */
+	@Override
+	public void beginLoop()
+	{
+		this.loopVertices = 0;
+	}
+
+	@Override
+	public void loopVertex(double x, double y, double z)
+	{
+		this.ensureOrigin(x, y, z);
+		if (this.loopVertices > 0)
+		{
+			this.put(this.lastX, this.lastY, this.lastZ);
+			this.vertex(x, y, z);
+		}
+
+		this.lastX = (float)(x - this.originX);
+		this.lastY = (float)(y - this.originY);
+		this.lastZ = (float)(z - this.originZ);
+
+		if (this.loopVertices++ == 0)
+		{
+			this.firstX = this.lastX;
+			this.firstY = this.lastY;
+			this.firstZ = this.lastZ;
+		}
+	}
+
+	/**
+	 * Close the current line loop by joining the last vertex to the first
+	 */
+	@Override
+	public void endLoop()
+	{
+		if (this.loopVertices > 2)
+		{
+			this.put(this.lastX, this.lastY, this.lastZ);
+			this.put(this.firstX, this.firstY, this.firstZ);
+		}
+
+		this.loopVertices = 0;
+	}
+
+	private void ensureOrigin(double x, double y, double z)
+	{
+		if (!this.hasOrigin)
+		{
+			this.originX = MathHelper.floor(x);
+			this.originY = MathHelper.floor(y);
+			this.originZ = MathHelper.floor(z);
+			this.hasOrigin = true;
+		}
+	}
+
+	private void put(float x, float y, float z)
+	{
+		this.version++;
+		if (this.size + 3 > this.data.length)
+		{
+			this.data = Arrays.copyOf(this.data, this.data.length * 2);
+		}
+
+		if (this.size == 0)
+		{
+			this.minX = this.maxX = x;
+			this.minY = this.maxY = y;
+			this.minZ = this.maxZ = z;
+		}
+		else
+		{
+			this.minX = Math.min(this.minX, x);
+			this.minY = Math.min(this.minY, y);
+			this.minZ = Math.min(this.minZ, z);
+			this.maxX = Math.max(this.maxX, x);
+			this.maxY = Math.max(this.maxY, y);
+			this.maxZ = Math.max(this.maxZ, z);
+		}
+
+		this.data[this.size++] = x;
+		this.data[this.size++] = y;
+		this.data[this.size++] = z;
+	}
+}
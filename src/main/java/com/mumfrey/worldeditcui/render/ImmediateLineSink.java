@@ -0,0 +1,128 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mumfrey.worldeditcui.debug.RenderProfiler;
+import com.mumfrey.worldeditcui.util.Vector3;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormats;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Line sink which draws straight away through the {@link Tessellator}, for
+ * geometry which changes too often to be worth retaining. Vertices are
+ * translated relative to the camera, each change of style flushes the lines
+ * drawn so far.
+ */
+public final class ImmediateLineSink implements LineSink
+{
+	private final RenderProfiler profiler;
+
+	private BufferBuilder buffer;
+	private boolean drawing;
+	private int vertices;
+	private double cameraX, cameraY, cameraZ;
+
+	private int loopVertices;
+	private double firstX, firstY, firstZ, lastX, lastY, lastZ;
+
+	public ImmediateLineSink(RenderProfiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Start drawing relative to the specified camera position
+	 */
+	public void begin(Vector3 camera)
+	{
+		this.cameraX = camera.getX();
+		this.cameraY = camera.getY();
+		this.cameraZ = camera.getZ();
+	}
+
+	/**
+	 * Draw any pending lines
+	 */
+	public void end()
+	{
+		if (this.drawing)
+		{
+			Tessellator.getInstance().draw();
+			this.drawing = false;
+
+			this.profiler.addVertices(this.vertices);
+			this.profiler.addDrawCall();
+			this.vertices = 0;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
+	public void setStyle(LineStyle line)
+	{
+		this.end();
+
+		GlStateManager.lineWidth(line.lineWidth);
+		GlStateManager.depthFunc(line.renderType.depthFunc);
+		line.applyColour();
+
+		this.buffer = Tessellator.getInstance().getBuffer();
+		this.buffer.begin(GL11.GL_LINES, VertexFormats.POSITION);
+		this.drawing = true;
+	}
+
+	@Override
+	public void line(double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		this.vertex(x1, y1, z1);
+		this.vertex(x2, y2, z2);
+	}
+
+	@Override
+	public void beginLoop()
+	{
+		this.loopVertices = 0;
+	}
+
+	@Override
+	public void loopVertex(double x, double y, double z)
+	{
+		if (this.loopVertices++ == 0)
+		{
+			this.firstX = x;
+			this.firstY = y;
+			this.firstZ = z;
+		}
+		else
+		{
+			this.line(this.lastX, this.lastY, this.lastZ, x, y, z);
+		}
+
+		this.lastX = x;
+		this.lastY = y;
+		this.lastZ = z;
+	}
+
+	@Override
+	public void endLoop()
+	{
+		if (this.loopVertices > 2)
+		{
+			this.line(this.lastX, this.lastY, this.lastZ, this.firstX, this.firstY, this.firstZ);
+		}
+
+		this.loopVertices = 0;
+	}
+
+	private void vertex(double x, double y, double z)
+	{
+		if (!this.drawing)
+		{
+			throw new IllegalStateException("No line style set");
+		}
+
+		this.buffer.vertex(x - this.cameraX, y - this.cameraY, z - this.cameraZ).next();
+		this.vertices++;
+	}
+}
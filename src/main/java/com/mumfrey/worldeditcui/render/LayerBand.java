@@ -0,0 +1,75 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Picks which horizontal layers of an extruded shape to draw. Every layer
+ * within a band around the camera's height is drawn, outside the band only
+ * every n'th layer, and the top and bottom layers are always drawn so the
+ * outline of the shape is kept.
+ *
+ * <p>The band follows the camera in steps of half its size rather than block
+ * by block, so a shape is rebuilt every few blocks of vertical movement at
+ * most. The camera is always at least a full band size away from the sparse
+ * layers.</p>
+ */
+public final class LayerBand
+{
+	private int size, spacing;
+	private int bandMin, bandMax;
+
+	/**
+	 * Update the band for the current frame
+	 *
+	 * @param ctx render context
+	 * @param bottom lowest layer of the shape
+	 * @param top highest layer of the shape
+	 * @return true if the layers to draw changed and the shape must be rebuilt
+	 */
+	public boolean update(CUIRenderContext ctx, int bottom, int top)
+	{
+		int size = ctx.layerBandSize();
+		int spacing = Math.max(ctx.layerSpacing(), 1);
+		int bandMin = 0, bandMax = 0;
+
+		if (size > 0)
+		{
+			int step = Math.max(size / 2, 1);
+			int anchor = Math.floorDiv(MathHelper.floor(ctx.cameraPos().getY()), step) * step;
+
+			// Past the ends of the shape the band only needs to reach the end
+			anchor = Math.max(Math.min(anchor, top + size), bottom - size - step);
+			bandMin = anchor - size;
+			bandMax = anchor + step + size;
+		}
+
+		if (size == this.size && spacing == this.spacing && bandMin == this.bandMin && bandMax == this.bandMax)
+		{
+			return false;
+		}
+
+		this.size = size;
+		this.spacing = spacing;
+		this.bandMin = bandMin;
+		this.bandMax = bandMax;
+		return true;
+	}
+
+	/**
+	 * Get whether the specified layer should be drawn
+	 *
+	 * @param y layer to test
+	 * @param bottom lowest layer of the shape
+	 * @param top highest layer of the shape
+	 */
+	public boolean isDrawn(int y, int bottom, int top)
+	{
+		if (this.size <= 0 || y <= bottom || y >= top)
+		{
+			return true;
+		}
+
+		return (y >= this.bandMin && y <= this.bandMax) || Math.floorMod(y, this.spacing) == 0;
+	}
+}
@@ -0,0 +1,125 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mumfrey.worldeditcui.util.Vector3;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
+
+/**
+ * A single outline drawn at a number of heights. The outline is uploaded once
+ * and each layer is drawn from the same buffer with a vertical translation,
+ * so the cost of building and uploading the geometry does not depend on the
+ * number of layers.
+ *
+ * <p>Layers are culled against the view frustum individually, the layers
+ * which passed the last {@link #cull} are the ones drawn.</p>
+ */
+public final class LayeredGeometry
+{
+	private final GeometryBuffer outline = new GeometryBuffer(GL11.GL_LINES);
+	private final RetainedBuffer buffer = new RetainedBuffer();
+	private int uploadedVersion;
+
+	private double[] layers = new double[16];
+	private int layerCount;
+
+	private double[] visible = new double[16];
+	private int visibleCount;
+
+	/**
+	 * Get the outline drawn for each layer, in world coordinates at height 0
+	 */
+	public GeometryBuffer getOutline()
+	{
+		return this.outline;
+	}
+
+	public void clearLayers()
+	{
+		this.layerCount = 0;
+		this.visibleCount = 0;
+	}
+
+	public void addLayer(double height)
+	{
+		if (this.layerCount == this.layers.length)
+		{
+			this.layers = Arrays.copyOf(this.layers, this.layerCount * 2);
+			this.visible = new double[this.layers.length];
+		}
+
+		this.layers[this.layerCount++] = height;
+	}
+
+	public int getLayerCount()
+	{
+		return this.layerCount;
+	}
+
+	public double getLayer(int index)
+	{
+		return this.layers[index];
+	}
+
+	/**
+	 * Pick the layers to draw this frame
+	 *
+	 * @return the number of visible layers
+	 */
+	public int cull(ViewFrustum frustum)
+	{
+		this.visibleCount = 0;
+		if (this.outline.getVertexCount() == 0)
+		{
+			return 0;
+		}
+
+		GeometryBuffer outline = this.outline;
+		for (int i = 0; i < this.layerCount; i++)
+		{
+			double height = this.layers[i];
+			if (frustum.isVisible(outline.getMinX(), outline.getMinY() + height, outline.getMinZ(), outline.getMaxX(), outline.getMaxY() + height, outline.getMaxZ()))
+			{
+				this.visible[this.visibleCount++] = height;
+			}
+		}
+
+		return this.visibleCount;
+	}
+
+	/**
+	 * Get the number of vertices drawn for the visible layers
+	 */
+	public int getVertexCount()
+	{
+		return this.outline.getVertexCount() * this.visibleCount;
+	}
+
+	/**
+	 * Replay the visible layers into a sink instead of drawing them
+	 */
+	void emit(LineSink sink)
+	{
+		for (int i = 0; i < this.visibleCount; i++)
+		{
+			this.outline.emit(sink, this.visible[i]);
+		}
+	}
+
+	/**
+	 * Draw the visible layers using the current colour and line state
+	 *
+	 * @return the number of draw calls made
+	 */
+	int draw(Vector3 camera)
+	{
+		if (!this.buffer.isUploaded() || this.uploadedVersion != this.outline.getVersion())
+		{
+			this.buffer.upload(this.outline);
+			this.uploadedVersion = this.outline.getVersion();
+		}
+
+		this.buffer.drawLayers(camera, this.visible, this.visibleCount);
+		return this.outline.getVertexCount() > 0 ? this.visibleCount : 0;
+	}
+}
@@ -0,0 +1,155 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+
+/**
+ * Picks how densely a curved shape is drawn from its size on screen. Two
+ * levels are tracked: the ring level thins out rings which are closer together
+ * on screen than {@link #MIN_RING_SPACING} pixels, and the segment level
+ * reduces the number of segments around each ring while the segments stay too
+ * short to tell apart from a true curve.
+ *
+ * <p>Both levels only change once the projected size has moved beyond a
+ * {@link #HYSTERESIS} band around the threshold, so a shape sitting near a
+ * threshold does not flicker between levels.</p>
+ *
+ * <p>The levels are only updated on the render thread. Shapes tessellated on
+ * a background thread take the current {@link Level} when they are
+ * invalidated and read both levels from it, rather than from this object
+ * which may have moved on by the time the build runs.</p>
+ */
+public final class LevelOfDetail
+{
+	/**
+	 * Minimum on-screen spacing between adjacent rings, in pixels
+	 */
+	private static final double MIN_RING_SPACING = 4.0;
+
+	private static final int MAX_RING_LEVEL = 6;
+
+	private static final int MIN_SEGMENTS = 12;
+
+	private static final double HYSTERESIS = 1.25;
+
+	private int ringLevel, segmentLevel;
+
+	private Level level = new Level(0, 0);
+
+	/**
+	 * Update the level of detail for the current frame
+	 *
+	 * @param ctx render context
+	 * @param nearest distance from the camera to the nearest part of the shape
+	 * @param centre distance from the camera to the centre of the shape
+	 * @param radius radius of the largest ring of the shape
+	 * @param maxSegments number of segments drawn at full detail
+	 * @return true if the level changed and the shape must be rebuilt
+	 */
+	public boolean update(CUIRenderContext ctx, double nearest, double centre, double radius, int maxSegments)
+	{
+		int ringLevel = 0, segmentLevel = 0;
+
+		if (ctx.adaptiveDetail())
+		{
+			double blockSize = ctx.projectedSize(1.0, nearest);
+			double radiusSize = ctx.projectedSize(radius, centre);
+
+			ringLevel = LevelOfDetail.clamp(this.ringLevel, LevelOfDetail.getRingLevel(blockSize * LevelOfDetail.HYSTERESIS),
+					LevelOfDetail.getRingLevel(blockSize / LevelOfDetail.HYSTERESIS));
+			segmentLevel = LevelOfDetail.clamp(this.segmentLevel, LevelOfDetail.getSegmentLevel(radiusSize * LevelOfDetail.HYSTERESIS, maxSegments),
+					LevelOfDetail.getSegmentLevel(radiusSize / LevelOfDetail.HYSTERESIS, maxSegments));
+		}
+
+		if (ringLevel == this.ringLevel && segmentLevel == this.segmentLevel)
+		{
+			return false;
+		}
+
+		this.ringLevel = ringLevel;
+		this.segmentLevel = segmentLevel;
+		this.level = new Level(ringLevel, segmentLevel);
+		return true;
+	}
+
+	/**
+	 * Get the current levels as an immutable snapshot
+	 */
+	public Level getLevel()
+	{
+		return this.level;
+	}
+
+	/**
+	 * Get the distance in blocks between the rings to draw
+	 */
+	public int getRingStep()
+	{
+		return this.level.getRingStep();
+	}
+
+	/**
+	 * Get the number of segments to draw around each ring
+	 */
+	public int getSegments(int maxSegments)
+	{
+		return this.level.getSegments(maxSegments);
+	}
+
+	private static int getRingLevel(double blockSize)
+	{
+		int level = 0;
+		while (level < LevelOfDetail.MAX_RING_LEVEL && (1 << level) * blockSize < LevelOfDetail.MIN_RING_SPACING)
+		{
+			level++;
+		}
+		return level;
+	}
+
+	private static int getSegmentLevel(double radiusSize, int maxSegments)
+	{
+		// A chord of a circle r pixels across deviates from the arc by roughly
+		// r * (PI / n)^2 / 2 pixels, which stays under half a pixel when n >= PI * sqrt(r)
+		double wanted = Math.max(Math.PI * Math.sqrt(radiusSize), LevelOfDetail.MIN_SEGMENTS);
+		int level = 0;
+		while ((maxSegments >> (level + 1)) >= wanted)
+		{
+			level++;
+		}
+		return level;
+	}
+
+	private static int clamp(int value, int min, int max)
+	{
+		return value < min ? min : value > max ? max : value;
+	}
+
+	/**
+	 * Levels of detail at one point in time, safe to hand to another thread
+	 */
+	public static final class Level
+	{
+		private final int ringLevel, segmentLevel;
+
+		Level(int ringLevel, int segmentLevel)
+		{
+			this.ringLevel = ringLevel;
+			this.segmentLevel = segmentLevel;
+		}
+
+		/**
+		 * Get the distance in blocks between the rings to draw
+		 */
+		public int getRingStep()
+		{
+			return 1 << this.ringLevel;
+		}
+
+		/**
+		 * Get the number of segments to draw around each ring
+		 */
+		public int getSegments(int maxSegments)
+		{
+			return Math.max(maxSegments >> this.segmentLevel, Math.min(maxSegments, LevelOfDetail.MIN_SEGMENTS));
+		}
+	}
+}
@@ -0,0 +1,423 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mumfrey.worldeditcui.debug.RenderProfiler;
+import com.mumfrey.worldeditcui.render.RenderStyle.RenderType;
+import com.mumfrey.worldeditcui.util.Vector3;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gathers the geometry of every shape drawn in a frame and draws it with one
+ * call per bucket of identical line state (render type, line width, colour and
+ * primitive mode), so the number of draw calls does not depend on the number
+ * or size of the selections on screen.
+ *
+ * <p>Each bucket merges its geometry into a single retained buffer, but only
+ * once the geometry queued to it has stayed the same for
+ * {@link #MERGE_AFTER_FRAMES} frames. Until then, for instance while the
+ * camera turns and slices move in and out of view, while a polyhedron is
+ * still arriving, or while a tracking cube moves, each piece of geometry is
+ * drawn from its own retained buffer, and only the pieces which changed are
+ * uploaded again. The merged buffer is drawn whenever exactly the geometry
+ * it holds is queued.</p>
+ *
+ * <p>{@link LayeredGeometry} is queued in the same buckets but not merged, each
+ * one is drawn from its own buffer once per layer after the merged geometry
+ * of its bucket.</p>
+ *
+ * <p>Buckets are kept sorted by render type and then line width, so a frame is
+ * drawn as one pass per render type (all hidden lines from every region, then
+ * all visible lines) and the depth function and line width are only set when
+ * they change from one bucket to the next.</p>
+ */
+public final class LineBatcher
+{
+	private static final int MAX_IDLE_FRAMES = 100;
+
+	/**
+	 * Number of frames the geometry queued to a bucket must stay the same
+	 * before it is merged into one buffer
+	 */
+	private static final int MERGE_AFTER_FRAMES = 20;
+
+	private final RenderProfiler profiler;
+	private final List<Bucket> buckets = new ArrayList<>();
+	private int frame;
+
+	public LineBatcher(RenderProfiler profiler)
+	{
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Queue geometry to be drawn with the specified line style
+	 *
+	 * @param line line style
+	 * @param tint alpha multiplier for the line colour
+	 * @param geometry compiled geometry, must not be modified until the batch
+	 *      is flushed
+	 */
+	public void add(LineStyle line, float tint, GeometryBuffer geometry)
+	{
+		if (geometry.getVertexCount() > 0)
+		{
+			this.getBucket(line, tint, geometry.getMode()).add(geometry);
+			this.profiler.addVertices(geometry.getVertexCount());
+		}
+	}
+
+	/**
+	 * Queue the visible layers of layered geometry to be drawn with the
+	 * specified line style
+	 *
+	 * @param line line style
+	 * @param tint alpha multiplier for the line colour
+	 * @param layers layered geometry, must not be modified until the batch
+	 *      is flushed
+	 */
+	public void addLayers(LineStyle line, float tint, LayeredGeometry layers)
+	{
+		if (layers.getVertexCount() > 0)
+		{
+			this.getBucket(line, tint, layers.getOutline().getMode()).addLayers(layers);
+			this.profiler.addVertices(layers.getVertexCount());
+		}
+	}
+
+	/**
+	 * Draw everything queued this frame
+	 */
+	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
+	public void flush(Vector3 camera)
+	{
+		this.frame++;
+
+		int depthFunc = -1;
+		float lineWidth = -1.0F;
+		boolean cull = true;
+
+		for (int i = 0; i < this.buckets.size(); i++)
+		{
+			Bucket bucket = this.buckets.get(i);
+			if (bucket.count == 0 && bucket.layeredCount == 0)
+			{
+				if (this.frame - bucket.lastUsed > LineBatcher.MAX_IDLE_FRAMES)
+				{
+					this.buckets.remove(i--);
+				}
+				continue;
+			}
+
+			bucket.lastUsed = this.frame;
+			bucket.update();
+
+			if (bucket.renderType.depthFunc != depthFunc)
+			{
+				depthFunc = bucket.renderType.depthFunc;
+				GlStateManager.depthFunc(depthFunc);
+			}
+
+			if (bucket.lineWidth != lineWidth)
+			{
+				lineWidth = bucket.lineWidth;
+				GlStateManager.lineWidth(lineWidth);
+			}
+
+			if (cull == (bucket.mode == GL11.GL_QUADS))
+			{
+				cull = !cull;
+				if (cull)
+				{
+					GlStateManager.enableCull();
+				}
+				else
+				{
+					GlStateManager.disableCull();
+				}
+			}
+
+			this.profiler.addDrawCalls(bucket.draw(camera));
+		}
+
+		if (!cull)
+		{
+			GlStateManager.enableCull();
+		}
+	}
+
+	/**
+	 * Hand everything queued this frame to a sink instead of drawing it. Runs
+	 * the CPU side of the render path without a GL context, for measuring it.
+	 */
+	public void drain(LineSink sink)
+	{
+		for (int i = 0; i < this.buckets.size(); i++)
+		{
+			this.buckets.get(i).drain(sink);
+		}
+	}
+
+	private Bucket getBucket(LineStyle line, float tint, int mode)
+	{
+		float alpha = line.alpha * tint;
+		int index = 0;
+		for (; index < this.buckets.size(); index++)
+		{
+			Bucket bucket = this.buckets.get(index);
+			if (bucket.matches(line, alpha, mode))
+			{
+				return bucket;
+			}
+
+			if (bucket.isAfter(line, mode))
+			{
+				break;
+			}
+		}
+
+		Bucket bucket = new Bucket(line, alpha, mode);
+		bucket.lastUsed = this.frame;
+		this.buckets.add(index, bucket);
+		return bucket;
+	}
+
+	private static final class Bucket
+	{
+		final RenderType renderType;
+		final float lineWidth, red, green, blue, alpha;
+		final int mode;
+
+		private final GeometryBuffer mergedGeometry;
+		private final RetainedBuffer buffer = new RetainedBuffer();
+
+		private GeometryBuffer[] sources = new GeometryBuffer[16];
+		private int[] versions = new int[16];
+		private int count;
+
+		private GeometryBuffer[] built = new GeometryBuffer[16];
+		private int[] builtVersions = new int[16];
+		private int builtCount;
+
+		// What the merged buffer holds
+		private GeometryBuffer[] merged = new GeometryBuffer[16];
+		private int[] mergedVersions = new int[16];
+		private int mergedCount;
+		private boolean drawMerged;
+		private int stableFrames;
+
+		private LayeredGeometry[] layered = new LayeredGeometry[4];
+		private int layeredCount;
+
+		private boolean changed;
+		int lastUsed;
+
+		Bucket(LineStyle line, float alpha, int mode)
+		{
+			this.renderType = line.renderType;
+			this.lineWidth = line.lineWidth;
+			this.red = line.red;
+			this.green = line.green;
+			this.blue = line.blue;
+			this.alpha = alpha;
+			this.mode = mode;
+			this.mergedGeometry = new GeometryBuffer(mode);
+		}
+
+		boolean matches(LineStyle line, float alpha, int mode)
+		{
+			return this.mode == mode && this.renderType == line.renderType && this.lineWidth == line.lineWidth && this.alpha == alpha
+					&& this.red == line.red && this.green == line.green && this.blue == line.blue;
+		}
+
+		/**
+		 * Get whether this bucket is drawn after lines with the specified
+		 * state: buckets are ordered by render type, line width and then mode
+		 */
+		boolean isAfter(LineStyle line, int mode)
+		{
+			if (this.renderType != line.renderType)
+			{
+				return this.renderType.ordinal() > line.renderType.ordinal();
+			}
+
+			if (this.lineWidth != line.lineWidth)
+			{
+				return this.lineWidth > line.lineWidth;
+			}
+
+			return this.mode > mode;
+		}
+
+		void add(GeometryBuffer geometry)
+		{
+			if (this.count == this.sources.length)
+			{
+				this.sources = Arrays.copyOf(this.sources, this.count * 2);
+				this.versions = Arrays.copyOf(this.versions, this.count * 2);
+			}
+
+			int version = geometry.getVersion();
+			if (this.count >= this.builtCount || this.built[this.count] != geometry || this.builtVersions[this.count] != version)
+			{
+				this.changed = true;
+			}
+
+			this.sources[this.count] = geometry;
+			this.versions[this.count] = version;
+			this.count++;
+		}
+
+		void addLayers(LayeredGeometry layers)
+		{
+			if (this.layeredCount == this.layered.length)
+			{
+				this.layered = Arrays.copyOf(this.layered, this.layeredCount * 2);
+			}
+
+			this.layered[this.layeredCount++] = layers;
+		}
+
+		void drain(LineSink sink)
+		{
+			for (int i = 0; i < this.count; i++)
+			{
+				this.sources[i].emit(sink, 0.0);
+				this.sources[i] = null;
+			}
+			this.count = 0;
+			this.changed = false;
+
+			for (int i = 0; i < this.layeredCount; i++)
+			{
+				this.layered[i].emit(sink);
+				this.layered[i] = null;
+			}
+			this.layeredCount = 0;
+		}
+
+		/**
+		 * Decide whether to draw the merged buffer this frame, merging what
+		 * was queued if it has not changed for long enough
+		 */
+		void update()
+		{
+			this.stableFrames = this.changed || this.count != this.builtCount ? 0 : this.stableFrames + 1;
+
+			if (this.count < 2)
+			{
+				this.drawMerged = false; // nothing to merge
+			}
+			else if (this.isMerged() && this.buffer.isUploaded())
+			{
+				this.drawMerged = true;
+			}
+			else if (this.stableFrames >= LineBatcher.MERGE_AFTER_FRAMES)
+			{
+				this.merge();
+				this.drawMerged = true;
+			}
+			else
+			{
+				this.drawMerged = false;
+			}
+
+			// What was queued this frame becomes the reference for the next one
+			GeometryBuffer[] sources = this.built;
+			int[] versions = this.builtVersions;
+			Arrays.fill(sources, 0, this.builtCount, null);
+			this.built = this.sources;
+			this.builtVersions = this.versions;
+			this.builtCount = this.count;
+			this.sources = sources;
+			this.versions = versions;
+			this.count = 0;
+			this.changed = false;
+		}
+
+		/**
+		 * Get whether the merged buffer holds exactly what was queued
+		 */
+		private boolean isMerged()
+		{
+			if (this.count != this.mergedCount)
+			{
+				return false;
+			}
+
+			for (int i = 0; i < this.count; i++)
+			{
+				if (this.merged[i] != this.sources[i] || this.mergedVersions[i] != this.versions[i])
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private void merge()
+		{
+			if (this.merged.length < this.count)
+			{
+				this.merged = Arrays.copyOf(this.merged, this.sources.length);
+				this.mergedVersions = Arrays.copyOf(this.mergedVersions, this.sources.length);
+			}
+
+			if (this.mergedCount > this.count)
+			{
+				Arrays.fill(this.merged, this.count, this.mergedCount, null);
+			}
+			System.arraycopy(this.sources, 0, this.merged, 0, this.count);
+			System.arraycopy(this.versions, 0, this.mergedVersions, 0, this.count);
+			this.mergedCount = this.count;
+
+			this.mergedGeometry.reset();
+			for (int i = 0; i < this.count; i++)
+			{
+				this.mergedGeometry.append(this.sources[i]);
+			}
+			this.buffer.upload(this.mergedGeometry);
+		}
+
+		/**
+		 * Draw the merged buffer or each piece of queued geometry, and the
+		 * queued layered geometry, the depth function, line width and culling
+		 * are set by the batcher
+		 *
+		 * @return the number of draw calls made
+		 */
+		@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
+		int draw(Vector3 camera)
+		{
+			GlStateManager.color4f(this.red, this.green, this.blue, this.alpha);
+
+			int drawCalls = 0;
+			if (this.drawMerged)
+			{
+				this.buffer.draw(camera);
+				drawCalls++;
+			}
+			else
+			{
+				for (int i = 0; i < this.builtCount; i++)
+				{
+					this.built[i].retain().draw(camera);
+					drawCalls++;
+				}
+			}
+
+			for (int i = 0; i < this.layeredCount; i++)
+			{
+				drawCalls += this.layered[i].draw(camera);
+				this.layered[i] = null;
+			}
+			this.layeredCount = 0;
+
+			return drawCalls;
+		}
+	}
+}
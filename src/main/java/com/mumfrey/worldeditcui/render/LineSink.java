@@ -0,0 +1,34 @@
+package com.mumfrey.worldeditcui.render;
+
+/**
+ * Receives the lines making up a shape, in world coordinates. Shapes describe
+ * their geometry through this interface without knowing whether it is drawn
+ * straight away ({@link ImmediateLineSink}), retained for batching
+ * ({@link GeometryBuffer}) or simply measured.
+ */
+public interface LineSink
+{
+	/**
+	 * Set the style for the lines which follow. Sinks whose contents are
+	 * styled at the time they are drawn ignore this.
+	 */
+	void setStyle(LineStyle line);
+
+	/**
+	 * Emit a single line segment
+	 */
+	void line(double x1, double y1, double z1, double x2, double y2, double z2);
+
+	/**
+	 * Start a new closed line loop, vertices are supplied with
+	 * {@link #loopVertex}
+	 */
+	void beginLoop();
+
+	void loopVertex(double x, double y, double z);
+
+	/**
+	 * Close the current loop by joining the last vertex to the first
+	 */
+	void endLoop();
+}
@@ -35,7 +35,7 @@ public class LineStyle
 	 */
 	public boolean prepare(RenderType renderType)
 	{
-		if (this.renderType.matches(renderType))
+		if (this.matches(renderType))
 		{
 			GlStateManager.lineWidth(this.lineWidth);
 			GlStateManager.depthFunc(this.renderType.depthFunc);
@@ -45,6 +45,15 @@ public class LineStyle
 		return false;
 	}
 
+	/**
+	 * Get whether this line should be drawn for a style with the specified
+	 * render type
+	 */
+	public boolean matches(RenderType renderType)
+	{
+		return this.renderType.matches(renderType);
+	}
+
 	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
 	public void applyColour()
 	{
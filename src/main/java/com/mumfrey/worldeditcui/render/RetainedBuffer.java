@@ -0,0 +1,168 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mumfrey.worldeditcui.util.Vector3;
+import net.minecraft.client.render.VertexFormats;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL15;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vertex buffer object holding the contents of a {@link GeometryBuffer}. The
+ * geometry stays resident on the GPU between frames and is redrawn with a
+ * translation from its origin to the camera.
+ *
+ * <p>Rather than relying on explicit disposal, buffers which have not been
+ * drawn for {@link #MAX_IDLE_FRAMES} frames are released by {@link #sweep}. An
+ * owner which draws a released buffer again simply uploads it again.</p>
+ */
+public final class RetainedBuffer
+{
+	private static final int MAX_IDLE_FRAMES = 100;
+
+	private static final List<RetainedBuffer> ALLOCATED = new ArrayList<>();
+	private static FloatBuffer scratch = BufferUtils.createFloatBuffer(4096);
+	private static int frame;
+
+	private int id;
+	private int mode;
+	private int vertexCount;
+	private boolean uploaded;
+	private double originX, originY, originZ;
+	private int lastUsed;
+
+	/**
+	 * Get whether this buffer currently holds geometry which can be drawn
+	 */
+	public boolean isUploaded()
+	{
+		return this.uploaded;
+	}
+
+	public void upload(GeometryBuffer geometry)
+	{
+		this.mode = geometry.getMode();
+		this.vertexCount = geometry.getVertexCount();
+		this.originX = geometry.getOriginX();
+		this.originY = geometry.getOriginY();
+		this.originZ = geometry.getOriginZ();
+		this.uploaded = true;
+		this.lastUsed = RetainedBuffer.frame;
+
+		if (this.vertexCount == 0)
+		{
+			return;
+		}
+
+		if (this.id == 0)
+		{
+			this.id = GL15.glGenBuffers();
+			RetainedBuffer.ALLOCATED.add(this);
+		}
+
+		if (RetainedBuffer.scratch.capacity() < geometry.size())
+		{
+			RetainedBuffer.scratch = BufferUtils.createFloatBuffer(Math.max(geometry.size(), RetainedBuffer.scratch.capacity() * 2));
+		}
+
+		FloatBuffer data = RetainedBuffer.scratch;
+		data.clear();
+		data.put(geometry.getData(), 0, geometry.size());
+		data.flip();
+
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.id);
+		GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STATIC_DRAW);
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Draw the buffer using the current colour and line state
+	 *
+	 * @param camera camera position, the geometry is translated relative to it
+	 */
+	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
+	public void draw(Vector3 camera)
+	{
+		this.lastUsed = RetainedBuffer.frame;
+		if (this.vertexCount == 0 || this.id == 0)
+		{
+			return;
+		}
+
+		GlStateManager.pushMatrix();
+		GlStateManager.translated(this.originX - camera.getX(), this.originY - camera.getY(), this.originZ - camera.getZ());
+
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.id);
+		VertexFormats.POSITION.startDrawing(0L);
+		GlStateManager.drawArrays(this.mode, 0, this.vertexCount);
+		VertexFormats.POSITION.endDrawing();
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0); // the Tessellator draws from client memory
+
+		GlStateManager.popMatrix();
+	}
+
+	/**
+	 * Draw the buffer several times, translated vertically by each of the
+	 * specified heights, using the current colour and line state
+	 *
+	 * @param camera camera position, the geometry is translated relative to it
+	 * @param heights vertical offsets to draw the geometry at
+	 * @param count number of offsets to use
+	 */
+	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
+	public void drawLayers(Vector3 camera, double[] heights, int count)
+	{
+		this.lastUsed = RetainedBuffer.frame;
+		if (this.vertexCount == 0 || this.id == 0 || count == 0)
+		{
+			return;
+		}
+
+		double x = this.originX - camera.getX(), y = this.originY - camera.getY(), z = this.originZ - camera.getZ();
+
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.id);
+		VertexFormats.POSITION.startDrawing(0L);
+		for (int i = 0; i < count; i++)
+		{
+			GlStateManager.pushMatrix();
+			GlStateManager.translated(x, y + heights[i], z);
+			GlStateManager.drawArrays(this.mode, 0, this.vertexCount);
+			GlStateManager.popMatrix();
+		}
+		VertexFormats.POSITION.endDrawing();
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0); // the Tessellator draws from client memory
+	}
+
+	private void release()
+	{
+		GL15.glDeleteBuffers(this.id);
+		this.id = 0;
+		this.uploaded = false;
+	}
+
+	/**
+	 * Release buffers which have not been drawn recently. To be called once at
+	 * the end of each frame.
+	 */
+	public static void sweep()
+	{
+		RetainedBuffer.frame++;
+
+		for (int i = RetainedBuffer.ALLOCATED.size() - 1; i >= 0; i--)
+		{
+			RetainedBuffer buffer = RetainedBuffer.ALLOCATED.get(i);
+			if (RetainedBuffer.frame - buffer.lastUsed > RetainedBuffer.MAX_IDLE_FRAMES)
+			{
+				buffer.release();
+				RetainedBuffer last = RetainedBuffer.ALLOCATED.remove(RetainedBuffer.ALLOCATED.size() - 1);
+				if (last != buffer)
+				{
+					RetainedBuffer.ALLOCATED.set(i, last);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.mumfrey.worldeditcui.render;
+
+import com.mumfrey.worldeditcui.util.Bounds;
+import com.mumfrey.worldeditcui.util.Vector3;
+import net.minecraft.util.math.Matrix4f;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * The six clipping planes of the camera for the current frame, used to skip
+ * regions and slices of shapes which cannot appear on screen. The planes are
+ * extracted from the product of the projection and model-view matrices, and
+ * boxes are tested in camera-relative coordinates to match those matrices.
+ */
+public final class ViewFrustum
+{
+	/**
+	 * Boxes are grown by this much before testing, to allow for line width
+	 * and the small offsets shapes draw at
+	 */
+	private static final double MARGIN = 0.25;
+
+	private final FloatBuffer scratch = BufferUtils.createFloatBuffer(16);
+	private final float[] modelView = new float[16];
+	private final float[] projection = new float[16];
+	private final double[] planes = new double[6 * 4];
+
+	private boolean enabled;
+	private double cameraX, cameraY, cameraZ;
+
+	/**
+	 * Update the planes for the current frame
+	 *
+	 * @param camera camera position
+	 * @param modelView model-view matrix, relative to the camera
+	 * @param projection projection matrix, or null to disable culling
+	 */
+	public void update(Vector3 camera, Matrix4f modelView, Matrix4f projection)
+	{
+		this.enabled = camera != null && modelView != null && projection != null;
+		if (!this.enabled)
+		{
+			return;
+		}
+
+		this.cameraX = camera.getX();
+		this.cameraY = camera.getY();
+		this.cameraZ = camera.getZ();
+
+		this.read(modelView, this.modelView);
+		this.read(projection, this.projection);
+
+		// Rows of the combined clip matrix, combined as row 3 +/- rows 0, 1, 2
+		for (int plane = 0; plane < 6; plane++)
+		{
+			int row = plane >> 1;
+			double sign = (plane & 1) == 0 ? 1.0 : -1.0;
+			double length = 0.0;
+			for (int col = 0; col < 4; col++)
+			{
+				double value = this.clip(3, col) + sign * this.clip(row, col);
+				this.planes[plane * 4 + col] = value;
+				if (col < 3)
+				{
+					length += value * value;
+				}
+			}
+
+			length = Math.sqrt(length);
+			if (length > 0.0)
+			{
+				for (int col = 0; col < 4; col++)
+				{
+					this.planes[plane * 4 + col] /= length;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Disable culling, everything is considered visible until the next update
+	 */
+	public void disable()
+	{
+		this.enabled = false;
+	}
+
+	public boolean isVisible(Bounds bounds)
+	{
+		if (bounds.isUnbounded())
+		{
+			return true;
+		}
+
+		if (bounds.isEmpty())
+		{
+			return false;
+		}
+
+		return this.isVisible(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(), bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ());
+	}
+
+	public boolean isVisible(GeometryBuffer geometry)
+	{
+		if (geometry.getVertexCount() == 0)
+		{
+			return false;
+		}
+
+		return this.isVisible(geometry.getMinX(), geometry.getMinY(), geometry.getMinZ(), geometry.getMaxX(), geometry.getMaxY(), geometry.getMaxZ());
+	}
+
+	/**
+	 * Test whether any part of the specified box, in world coordinates, is
+	 * inside the frustum
+	 */
+	public boolean isVisible(double minX, double minY, double minZ, double maxX, double maxY, double maxZ)
+	{
+		if (!this.enabled)
+		{
+			return true;
+		}
+
+		minX -= this.cameraX + ViewFrustum.MARGIN;
+		minY -= this.cameraY + ViewFrustum.MARGIN;
+		minZ -= this.cameraZ + ViewFrustum.MARGIN;
+		maxX -= this.cameraX - ViewFrustum.MARGIN;
+		maxY -= this.cameraY - ViewFrustum.MARGIN;
+		maxZ -= this.cameraZ - ViewFrustum.MARGIN;
+
+		double[] planes = this.planes;
+		for (int i = 0; i < planes.length; i += 4)
+		{
+			double a = planes[i], b = planes[i + 1], c = planes[i + 2];
+
+			// Test the corner furthest along the plane normal
+			double distance = a * (a > 0.0 ? maxX : minX) + b * (b > 0.0 ? maxY : minY) + c * (c > 0.0 ? maxZ : minZ) + planes[i + 3];
+			if (distance < 0.0)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private double clip(int row, int col)
+	{
+		// Both matrices are stored column-major
+		double value = 0.0;
+		for (int k = 0; k < 4; k++)
+		{
+			value += this.projection[k * 4 + row] * this.modelView[col * 4 + k];
+		}
+		return value;
+	}
+
+	private void read(Matrix4f matrix, float[] dest)
+	{
+		this.scratch.clear();
+		matrix.writeToBuffer(this.scratch);
+		for (int i = 0; i < 16; i++)
+		{
+			dest[i] = this.scratch.get(i);
+		}
+	}
+}
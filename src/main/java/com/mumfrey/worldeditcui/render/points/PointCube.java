@@ -4,6 +4,7 @@ import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
 import com.mumfrey.worldeditcui.render.ConfiguredColour;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.shapes.Render3DBox;
+import com.mumfrey.worldeditcui.render.shapes.RenderMarkers;
 import com.mumfrey.worldeditcui.util.BoundingBox;
 import com.mumfrey.worldeditcui.util.Observable;
 import com.mumfrey.worldeditcui.util.Vector3;
@@ -18,7 +19,7 @@ import com.mumfrey.worldeditcui.util.Vector3;
  */
 public class PointCube extends Observable<BoundingBox>
 {
-	private static final double PADDING = 0.03;
+	protected static final double PADDING = 0.03;
 	
 	protected static final Vector3 MIN_VEC = new Vector3(PointCube.PADDING, PointCube.PADDING, PointCube.PADDING);
 	protected static final Vector3 MAX_VEC = new Vector3(PointCube.PADDING + 1, PointCube.PADDING + 1, PointCube.PADDING + 1);
@@ -57,8 +58,23 @@ public class PointCube extends Observable<BoundingBox>
 	
 	public void render(CUIRenderContext ctx)
 	{
+		if (this.box == null)
+		{
+			this.box = new Render3DBox(this.style, this.point.subtract(PointCube.MIN_VEC), this.point.add(PointCube.MAX_VEC));
+		}
+		
 		this.box.render(ctx);
 	}
+	
+	/**
+	 * Add this point's marker to a batch of markers instead of drawing it on
+	 * its own
+	 */
+	public void addMarker(RenderMarkers markers)
+	{
+		double x = this.point.getX(), y = this.point.getY(), z = this.point.getZ();
+		markers.add(x - PointCube.PADDING, y - PointCube.PADDING, z - PointCube.PADDING, x + 1 + PointCube.PADDING, y + 1 + PointCube.PADDING, z + 1 + PointCube.PADDING);
+	}
 
 	public void updatePoint(float partialTicks)
 	{
@@ -89,6 +105,6 @@ public class PointCube extends Observable<BoundingBox>
 
 	private void update()
 	{
-		this.box = new Render3DBox(this.style, this.point.subtract(PointCube.MIN_VEC), this.point.add(PointCube.MAX_VEC));
+		this.box = null; // created when first drawn, points in a batch never are
 	}
 }
@@ -1,13 +1,15 @@
 package com.mumfrey.worldeditcui.render.points;
 
 import com.mumfrey.worldeditcui.util.Vector3;
+import com.mumfrey.worldeditcui.util.Vector3m;
 import net.minecraft.entity.Entity;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 
 /**
- * A PointCube which tracks the specified entity location
+ * A PointCube which tracks the specified entity location. The point is moved
+ * in place as the targeted block changes, so observers must copy it.
  * 
  * @author Adam Mummery-Smith
  */
@@ -15,6 +17,7 @@ public class PointCubeTracking extends PointCube
 {
 	private final Entity entity;
 	private final double traceDistance;
+	private final Vector3m tracked = new Vector3m();
 	private int lastX, lastY, lastZ;
 	
 	public PointCubeTracking(Entity entity, double traceDistance)
@@ -22,6 +25,7 @@ public class PointCubeTracking extends PointCube
 		super(0, 0, 0);
 		this.entity = entity;
 		this.traceDistance = traceDistance;
+		this.point = this.tracked;
 	}
 	
 	@Override
@@ -54,8 +58,12 @@ public class PointCubeTracking extends PointCube
 			this.lastX = x;
 			this.lastY = y;
 			this.lastZ = z;
-			this.point = new Vector3(x, y, z);
-			this.box.setPosition(this.point.subtract(PointCube.MIN_VEC), this.point.add(PointCube.MAX_VEC));
+			this.tracked.set(x, y, z);
+			if (this.box != null)
+			{
+				this.box.setPosition(x - PointCube.PADDING, y - PointCube.PADDING, z - PointCube.PADDING,
+						x + 1 + PointCube.PADDING, y + 1 + PointCube.PADDING, z + 1 + PointCube.PADDING);
+			}
 			this.notifyObservers();
 		}
 	}
@@ -4,6 +4,7 @@ import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
 import com.mumfrey.worldeditcui.render.ConfiguredColour;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.shapes.Render3DBox;
+import com.mumfrey.worldeditcui.render.shapes.RenderMarkers;
 import com.mumfrey.worldeditcui.util.Vector2;
 import com.mumfrey.worldeditcui.util.Vector3;
 
@@ -44,6 +45,16 @@ public class PointRectangle
 		this.box.render(ctx);
 	}
 	
+	/**
+	 * Add this point's marker, spanning the specified layers, to a batch of
+	 * markers instead of drawing it on its own
+	 */
+	public void addMarker(RenderMarkers markers, int min, int max)
+	{
+		double x = this.point.getX(), z = this.point.getY();
+		markers.add(x - PointRectangle.OFF, min - PointRectangle.OFF, z - PointRectangle.OFF, x + 1 + PointRectangle.OFF, max + 1 + PointRectangle.OFF, z + 1 + PointRectangle.OFF);
+	}
+	
 	public Vector2 getPoint()
 	{
 		return this.point;
@@ -66,6 +77,11 @@ public class PointRectangle
 	
 	public void setMinMax(int min, int max)
 	{
+		if (this.box != null && min == this.min && max == this.max)
+		{
+			return;
+		}
+		
 		this.min = min;
 		this.max = max;
 		this.update();
@@ -8,6 +8,7 @@ import com.mumfrey.worldeditcui.render.points.PointCubeTracking;
 import com.mumfrey.worldeditcui.render.shapes.Render3DBox;
 import com.mumfrey.worldeditcui.render.shapes.Render3DGrid;
 import com.mumfrey.worldeditcui.util.BoundingBox;
+import com.mumfrey.worldeditcui.util.Bounds;
 import net.minecraft.entity.Entity;
 
 /**
@@ -75,7 +76,7 @@ public class CuboidRegion extends Region
 			this.points[id] = new PointCube(x, y, z).setStyle(this.styles[id+2]);
 		}
 		
-		this.updateBounds();
+		this.update();
 	}
 	
 	@Override
@@ -86,11 +87,13 @@ public class CuboidRegion extends Region
 			this.points[id] = new PointCubeTracking(entity, traceDistance).setStyle(this.styles[id+2]);
 		}
 		
-		this.updateBounds();
+		this.update();
 	}
 
-	private void updateBounds()
+	private void update()
 	{
+		this.invalidateBounds();
+		
 		if (this.points[0] != null && this.points[1] != null)
 		{
 			BoundingBox bounds = new BoundingBox(this.points[0], this.points[1]);
@@ -99,6 +102,22 @@ public class CuboidRegion extends Region
 		}
 	}
 	
+	@Override
+	protected void updateBounds(Bounds bounds)
+	{
+		for (PointCube point : this.points)
+		{
+			if (point != null && point.isDynamic())
+			{
+				bounds.setUnbounded();
+			}
+			else if (point != null)
+			{
+				bounds.includeBlock(point.getPoint());
+			}
+		}
+	}
+	
 	@Override
 	protected void updateStyles()
 	{
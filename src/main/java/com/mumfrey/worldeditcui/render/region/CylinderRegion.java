@@ -77,7 +77,11 @@ public class CylinderRegion extends Region
 		}
 		
 		this.circles = new RenderCylinderCircles(this.styles[1], this.centre, this.radX, this.radZ, tMin, tMax);
-		this.grid = new RenderCylinderGrid(this.styles[1], this.centre, this.radX, this.radZ, tMin, tMax);
+		
+		RenderCylinderGrid grid = new RenderCylinderGrid(this.styles[1], this.centre, this.radX, this.radZ, tMin, tMax);
+		grid.continueFrom(this.grid);
+		this.grid = grid;
+		
 		this.box = new RenderCylinderBox(this.styles[0], this.centre, this.radX, this.radZ, tMin, tMax);
 	}
 	
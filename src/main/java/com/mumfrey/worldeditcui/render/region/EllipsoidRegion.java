@@ -59,7 +59,9 @@ public class EllipsoidRegion extends Region
 	{
 		if (this.centre != null && this.radii != null)
 		{
-			this.ellipsoid = new RenderEllipsoid(this.styles[0], this.centre, this.radii);
+			RenderEllipsoid ellipsoid = new RenderEllipsoid(this.styles[0], this.centre, this.radii);
+			ellipsoid.continueFrom(this.ellipsoid);
+			this.ellipsoid = ellipsoid;
 		}
 	}
 	
@@ -6,12 +6,18 @@ import com.mumfrey.worldeditcui.render.ConfiguredColour;
 import com.mumfrey.worldeditcui.render.points.PointRectangle;
 import com.mumfrey.worldeditcui.render.shapes.Render2DBox;
 import com.mumfrey.worldeditcui.render.shapes.Render2DGrid;
+import com.mumfrey.worldeditcui.render.shapes.RenderMarkers;
+import com.mumfrey.worldeditcui.util.Bounds;
+import com.mumfrey.worldeditcui.util.Vector2;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Main controller for a polygon-type region
+ * Main controller for a polygon-type region. Points and bounds arrive one
+ * event at a time, so changes only mark the region as dirty and the shapes are
+ * rebuilt once, the next time the region is drawn. The point markers are all
+ * drawn as one shape.
  * 
  * @author yetanotherx
  * @author lahwran
@@ -22,12 +28,15 @@ public class PolygonRegion extends Region
 	private final List<PointRectangle> points = new ArrayList<>();
 	private int min, max;
 	
+	private final RenderMarkers markers;
 	private Render2DBox box;
 	private Render2DGrid grid;
+	private boolean dirty;
 	
 	public PolygonRegion(WorldEditCUI controller)
 	{
 		super(controller, ConfiguredColour.POLYBOX.style(), ConfiguredColour.POLYGRID.style(), ConfiguredColour.POLYPOINT.style());
+		this.markers = new RenderMarkers(this.styles[0]);
 	}
 	
 	@Override
@@ -38,14 +47,9 @@ public class PolygonRegion extends Region
 			return;
 		}
 		
-		for (PointRectangle point : this.points)
-		{
-			if (point != null)
-			{
-				point.render(ctx);
-			}
-		}
+		this.update();
 		
+		this.markers.render(ctx);
 		this.box.render(ctx);
 		this.grid.render(ctx);
 	}
@@ -55,43 +59,63 @@ public class PolygonRegion extends Region
 	{
 		this.min = min;
 		this.max = max;
-		this.update();
+		this.invalidate();
 	}
 	
 	@Override
 	public void setPolygonPoint(int id, int x, int z)
 	{
+		this.putPoint(id, x, z);
+		this.invalidate();
+	}
+	
+	@Override
+	public void setPolygonPoints(int[] ids, int[] xs, int[] zs)
+	{
+		for (int i = 0; i < ids.length; i++)
+		{
+			this.putPoint(ids[i], xs[i], zs[i]);
+		}
+		this.invalidate();
+	}
+	
+	private void putPoint(int id, int x, int z)
+	{
+		if (id < 0 || id > Region.MAX_POINT_ID)
+		{
+			throw new IllegalArgumentException("Invalid point id " + id);
+		}
+		
 		PointRectangle point = new PointRectangle(x, z);
 		point.setStyle(this.styles[0]);
-		point.setMinMax(this.min, this.max);
 		
-		if (id < this.points.size())
-		{
-			this.points.set(id, point);
-		}
-		else
+		while (this.points.size() <= id)
 		{
-			for (int i = 0; i < id - this.points.size(); i++)
-			{
-				this.points.add(null);
-			}
-			this.points.add(point);
+			this.points.add(null);
 		}
-		this.update();
+		this.points.set(id, point);
+	}
+	
+	private void invalidate()
+	{
+		this.dirty = true;
+		this.invalidateBounds();
 	}
 	
 	private void update()
 	{
-		if (this.points.size() <= 0)
+		if (!this.dirty || this.points.size() <= 0)
 		{
 			return;
 		}
 		
+		this.dirty = false;
+		this.markers.clear();
 		for (PointRectangle point : this.points)
 		{
 			if (point != null)
 			{
-				point.setMinMax(this.min, this.max);
+				point.addMarker(this.markers, this.min, this.max);
 			}
 		}
 		
@@ -102,6 +126,8 @@ public class PolygonRegion extends Region
 	@Override
 	protected void updateStyles()
 	{
+		this.markers.setStyle(this.styles[0]);
+		
 		if (this.box != null) 
 		{
 			this.box.setStyle(this.styles[0]);
@@ -114,7 +140,23 @@ public class PolygonRegion extends Region
 		
 		for (PointRectangle point : this.points)
 		{
-			point.setStyle(this.styles[0]);
+			if (point != null)
+			{
+				point.setStyle(this.styles[0]);
+			}
+		}
+	}
+	
+	@Override
+	protected void updateBounds(Bounds bounds)
+	{
+		for (PointRectangle point : this.points)
+		{
+			if (point != null)
+			{
+				Vector2 pos = point.getPoint();
+				bounds.include(pos.getX(), this.min, pos.getY(), pos.getX() + 1.0, this.max + 1.0, pos.getY() + 1.0);
+			}
 		}
 	}
 
@@ -4,106 +4,154 @@ import com.mumfrey.worldeditcui.WorldEditCUI;
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
 import com.mumfrey.worldeditcui.render.ConfiguredColour;
 import com.mumfrey.worldeditcui.render.points.PointCube;
-import com.mumfrey.worldeditcui.render.shapes.Render3DPolygon;
-import com.mumfrey.worldeditcui.util.Vector3;
+import com.mumfrey.worldeditcui.render.shapes.Render3DPolyhedron;
+import com.mumfrey.worldeditcui.render.shapes.RenderMarkers;
+import com.mumfrey.worldeditcui.util.Bounds;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Main controller for a polygon-type region
+ * Main controller for a polyhedron-type region. Faces are appended to the
+ * shape as they arrive, so the region is drawn while a large polyhedron is
+ * still being received. The vertex markers are all drawn as one shape, which
+ * is rebuilt at most once per frame while vertices are arriving.
  * 
  * @author TomyLobo
  * @author Adam Mummery-Smith
  */
 public class PolyhedronRegion extends Region
 {
-	private static final Vector3 HALF = new Vector3(0.5, 0.5, 0.5);
-	
 	private final List<PointCube> vertices = new ArrayList<>();
-	private final List<Vector3[]> faces = new ArrayList<>();
 	
-	private final List<Render3DPolygon> faceRenders = new ArrayList<>();
+	private final Render3DPolyhedron faces;
+	private final RenderMarkers firstMarker, markers;
+	private boolean markersDirty;
 	
 	public PolyhedronRegion(WorldEditCUI controller)
 	{
 		super(controller, ConfiguredColour.POLYBOX.style(), ConfiguredColour.POLYPOINT.style(), ConfiguredColour.CUBOIDPOINT1.style());
+		this.faces = new Render3DPolyhedron(this.styles[0]);
+		this.firstMarker = new RenderMarkers(this.styles[2]);
+		this.markers = new RenderMarkers(this.styles[1]);
 	}
 	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
-		for (PointCube vertex : this.vertices)
+		if (this.markersDirty)
 		{
-			vertex.render(ctx);
+			this.updateMarkers();
 		}
 		
-		for (Render3DPolygon face : this.faceRenders)
+		this.firstMarker.render(ctx);
+		this.markers.render(ctx);
+		this.faces.render(ctx);
+	}
+	
+	private void updateMarkers()
+	{
+		this.markersDirty = false;
+		this.firstMarker.clear();
+		this.markers.clear();
+		for (PointCube vertex : this.vertices)
 		{
-			face.render(ctx);
+			if (vertex != null)
+			{
+				vertex.addMarker(vertex.getId() == 0 ? this.firstMarker : this.markers);
+			}
 		}
 	}
 
 	@Override
 	public void setCuboidPoint(int id, double x, double y, double z)
 	{
+		this.putVertex(id, x, y, z);
+		this.markersDirty = true;
+		this.invalidateBounds();
+	}
+	
+	@Override
+	public void setCuboidPoints(int[] ids, double[] xs, double[] ys, double[] zs)
+	{
+		for (int i = 0; i < ids.length; i++)
+		{
+			this.putVertex(ids[i], xs[i], ys[i], zs[i]);
+		}
+		this.markersDirty = true;
+		this.invalidateBounds();
+	}
+	
+	private void putVertex(int id, double x, double y, double z)
+	{
+		if (id < 0 || id > Region.MAX_POINT_ID)
+		{
+			throw new IllegalArgumentException("Invalid vertex id " + id);
+		}
+		
 		final PointCube vertex = new PointCube(x, y, z).setId(id);
-		vertex.setStyle(id == 0 ? this.styles[2] : this.styles[1]);
 		
-		if (id < this.vertices.size())
+		while (this.vertices.size() <= id)
 		{
-			this.vertices.set(id, vertex);
+			this.vertices.add(null);
 		}
-		else
+		this.vertices.set(id, vertex);
+		
+		this.faces.setVertex(id, x + 0.5, y + 0.5, z + 0.5);
+	}
+	
+	@Override
+	public void addPolygon(int[] vertexIds)
+	{
+		if (this.hasVertices(vertexIds))
 		{
-			for (int i = 0; i < id - this.vertices.size(); i++)
-			{
-				this.vertices.add(null);
-			}
-			this.vertices.add(vertex);
+			this.faces.addFace(vertexIds);
 		}
 	}
 	
 	@Override
-	public void addPolygon(int[] vertexIds)
+	public void addPolygons(int[][] polygons)
 	{
-		final Vector3[] face = new Vector3[vertexIds.length];
-		for (int i = 0; i < vertexIds.length; ++i)
+		for (int[] vertexIds : polygons)
 		{
-			final PointCube vertex = this.vertices.get(vertexIds[i]);
-			if (vertex == null)
+			if (this.hasVertices(vertexIds))
 			{
-				// This should never happen
-				return;
+				this.faces.addFace(vertexIds);
 			}
-			
-			face[i] = vertex.getPoint().add(HALF);
 		}
-		this.faces.add(face);
-		this.update();
 	}
 	
-	private void update()
+	private boolean hasVertices(int[] vertexIds)
 	{
-		this.faceRenders.clear();
-		
-		for (Vector3[] face : this.faces)
+		for (int id : vertexIds)
 		{
-			this.faceRenders.add(new Render3DPolygon(this.styles[0], face));
+			if (id >= this.vertices.size() || this.vertices.get(id) == null)
+			{
+				// This should never happen
+				return false;
+			}
 		}
+		
+		return true;
 	}
 	
 	@Override
 	protected void updateStyles()
+	{
+		this.firstMarker.setStyle(this.styles[2]);
+		this.markers.setStyle(this.styles[1]);
+		this.faces.setStyle(this.styles[0]);
+	}
+	
+	@Override
+	protected void updateBounds(Bounds bounds)
 	{
 		for (PointCube vertex : this.vertices)
 		{
-			vertex.setStyle(vertex.getId() == 0 ? this.styles[2] : this.styles[1]);
-		}
-		
-		for (Render3DPolygon face : this.faceRenders)
-		{
-			face.setStyle(this.styles[0]);
+			if (vertex != null)
+			{
+				bounds.includeBlock(vertex.getPoint());
+			}
 		}
 	}
 
@@ -6,6 +6,7 @@ import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
 import com.mumfrey.worldeditcui.exceptions.InvalidSelectionTypeException;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.RenderStyle.RenderType;
+import com.mumfrey.worldeditcui.util.Bounds;
 import net.minecraft.entity.Entity;
 
 /**
@@ -19,11 +20,20 @@ import net.minecraft.entity.Entity;
  */
 public abstract class Region implements InitialisationFactory
 {
+	/**
+	 * Highest point id a region accepts, points are stored in lists indexed
+	 * by their id
+	 */
+	public static final int MAX_POINT_ID = 65535;
+	
 	protected final WorldEditCUI controller;
 	protected final RenderStyle[] defaultStyles;
 	protected RenderStyle[] styles;
 	protected RenderType renderType = RenderType.ANY;
 	
+	private final Bounds bounds = new Bounds();
+	private boolean boundsDirty = true;
+	
 	protected Region(WorldEditCUI controller, RenderStyle... styles)
 	{
 		this.controller = controller;
@@ -37,6 +47,40 @@ public abstract class Region implements InitialisationFactory
 	
 	public abstract void render(CUIRenderContext ctx);
 	
+	/**
+	 * Get the world-space box enclosing everything this region draws, used to
+	 * skip regions which are outside the view
+	 */
+	public final Bounds getBounds()
+	{
+		if (this.boundsDirty)
+		{
+			this.boundsDirty = false;
+			this.bounds.clear();
+			this.updateBounds(this.bounds);
+		}
+		
+		return this.bounds;
+	}
+	
+	/**
+	 * Mark the bounds as stale, to be called whenever the region changes shape
+	 */
+	protected final void invalidateBounds()
+	{
+		this.boundsDirty = true;
+	}
+	
+	/**
+	 * Grow the supplied (empty) bounds to enclose the region. Regions which do
+	 * not know their extent leave the bounds unbounded so they are always
+	 * drawn.
+	 */
+	protected void updateBounds(Bounds bounds)
+	{
+		bounds.setUnbounded();
+	}
+	
 	public RenderStyle[] getDefaultStyles()
 	{
 		return this.defaultStyles;
@@ -83,6 +127,18 @@ public abstract class Region implements InitialisationFactory
 		throw new InvalidSelectionTypeException(this.getType().getName(), "setCuboidPoint");
 	}
 	
+	/**
+	 * Set many points at once, regions which can apply them in bulk override
+	 * this to only update their shapes once
+	 */
+	public void setCuboidPoints(int[] ids, double[] xs, double[] ys, double[] zs)
+	{
+		for (int i = 0; i < ids.length; i++)
+		{
+			this.setCuboidPoint(ids[i], xs[i], ys[i], zs[i]);
+		}
+	}
+	
 	public void setCuboidVertexLatch(int id, Entity entity, double traceDistance)
 	{
 		throw new InvalidSelectionTypeException(this.getType().getName(), "setCuboidVertexLatch");
@@ -93,6 +149,18 @@ public abstract class Region implements InitialisationFactory
 		throw new InvalidSelectionTypeException(this.getType().getName(), "setPolygonPoint");
 	}
 	
+	/**
+	 * Set many points at once, regions which can apply them in bulk override
+	 * this to only update their shapes once
+	 */
+	public void setPolygonPoints(int[] ids, int[] xs, int[] zs)
+	{
+		for (int i = 0; i < ids.length; i++)
+		{
+			this.setPolygonPoint(ids[i], xs[i], zs[i]);
+		}
+	}
+	
 	public void setEllipsoidCenter(int x, int y, int z)
 	{
 		throw new InvalidSelectionTypeException(this.getType().getName(), "setEllipsoidCenter");
@@ -123,5 +191,17 @@ public abstract class Region implements InitialisationFactory
 		throw new InvalidSelectionTypeException(this.getType().getName(), "addPolygon");
 	}
 	
+	/**
+	 * Add many polygons at once, regions which can apply them in bulk override
+	 * this to only update their shapes once
+	 */
+	public void addPolygons(int[][] polygons)
+	{
+		for (int[] vertexIds : polygons)
+		{
+			this.addPolygon(vertexIds);
+		}
+	}
+	
 	public abstract RegionType getType();
 }
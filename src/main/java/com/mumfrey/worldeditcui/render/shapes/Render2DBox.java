@@ -1,14 +1,9 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointRectangle;
 import com.mumfrey.worldeditcui.util.Vector2;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
 
 import java.util.List;
 
@@ -33,33 +28,16 @@ public class Render2DBox extends RenderRegion
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void tessellate(LineSink sink)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-		double off = 0.03 - ctx.cameraPos().getY();
-		for (LineStyle line : this.style.getLines())
+		double off = 0.03;
+		for (PointRectangle point : this.points)
 		{
-			if (!line.prepare(this.style.getRenderType()))
+			if (point != null)
 			{
-				continue;
+				Vector2 pos = point.getPoint();
+				sink.line(pos.getX() + 0.5, this.min + off, pos.getY() + 0.5, pos.getX() + 0.5, this.max + 1 + off, pos.getY() + 0.5);
 			}
-			
-			buf.begin(GL11.GL_LINES, VertexFormats.POSITION);
-			line.applyColour();
-			
-			for (PointRectangle point : this.points)
-			{
-				if (point != null)
-				{
-					Vector2 pos = point.getPoint();
-					double x = pos.getX() - ctx.cameraPos().getX();
-					double z = pos.getY() - ctx.cameraPos().getZ();
-					buf.vertex(x + 0.5, this.min + off, z + 0.5).next();
-					buf.vertex(x + 0.5, this.max + 1 + off, z + 0.5).next();
-				}
-			}
-			tessellator.draw();
 		}
 	}
 }
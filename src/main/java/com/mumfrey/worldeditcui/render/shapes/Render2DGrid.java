@@ -1,15 +1,14 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LayerBand;
+import com.mumfrey.worldeditcui.render.LayeredGeometry;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointRectangle;
 import com.mumfrey.worldeditcui.util.Vector2;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,15 +18,18 @@ import java.util.List;
  * @author lahwran
  * @author Adam Mummery-Smith
  */
-public class Render2DGrid extends RenderRegion
+public class Render2DGrid extends RenderLayers
 {
+	private static final double OFFSET_Y = 0.03;
+	
 	private final List<PointRectangle> points;
 	private final int min, max;
+	private final LayerBand band = new LayerBand();
 	
 	public Render2DGrid(RenderStyle style, List<PointRectangle> points, int min, int max)
 	{
 		super(style);
-		this.points = points;
+		this.points = new ArrayList<>(points);
 		this.min = min;
 		this.max = max;
 	}
@@ -35,37 +37,38 @@ public class Render2DGrid extends RenderRegion
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
-		double off = 0.03;
-		for (double height = this.min; height <= this.max + 1; height++)
+		if (this.band.update(ctx, this.min, this.max + 1))
 		{
-			this.drawPoly(ctx, height + off);
+			this.invalidateLayers();
 		}
+		
+		super.render(ctx);
 	}
 	
-	protected void drawPoly(final CUIRenderContext ctx, double height)
+	@Override
+	protected void addLayers(LayeredGeometry layers)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-		for (LineStyle line : this.style.getLines())
+		for (int height = this.min; height <= this.max + 1; height++)
 		{
-			if (!line.prepare(this.style.getRenderType()))
+			if (this.band.isDrawn(height, this.min, this.max + 1))
 			{
-				continue;
+				layers.addLayer(height + OFFSET_Y);
 			}
-			
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
-			for (PointRectangle point : this.points)
+		}
+	}
+	
+	@Override
+	protected void tessellateOutline(LineSink sink, double height)
+	{
+		sink.beginLoop();
+		for (PointRectangle point : this.points)
+		{
+			if (point != null)
 			{
-				if (point != null)
-				{
-					Vector2 pos = point.getPoint();
-					double x = pos.getX() - ctx.cameraPos().getX();
-					double z = pos.getY() - ctx.cameraPos().getZ();
-					buf.vertex(x + 0.5, height - ctx.cameraPos().getY(), z + 0.5).next();
-				}
+				Vector2 pos = point.getPoint();
+				sink.loopVertex(pos.getX() + 0.5, height, pos.getY() + 0.5);
 			}
-			tessellator.draw();
 		}
+		sink.endLoop();
 	}
 }
@@ -1,15 +1,11 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.util.BoundingBox;
 import com.mumfrey.worldeditcui.util.Observable;
 import com.mumfrey.worldeditcui.util.Vector3;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
+import com.mumfrey.worldeditcui.util.Vector3m;
 
 /**
  * Draws a rectangular prism around 2 corners
@@ -20,7 +16,7 @@ import org.lwjgl.opengl.GL11;
  */
 public class Render3DBox extends RenderRegion
 {
-	private Vector3 first, second;
+	private final Vector3m first = new Vector3m(), second = new Vector3m();
 	
 	public Render3DBox(RenderStyle style, BoundingBox region)
 	{
@@ -34,8 +30,8 @@ public class Render3DBox extends RenderRegion
 	public Render3DBox(RenderStyle style, Vector3 first, Vector3 second)
 	{
 		super(style);
-		this.first = first;
-		this.second = second;
+		this.first.set(first.getX(), first.getY(), first.getZ());
+		this.second.set(second.getX(), second.getY(), second.getZ());
 	}
 	
 	@Override
@@ -49,67 +45,51 @@ public class Render3DBox extends RenderRegion
 		this.setPosition(region.getMin(), region.getMax());
 	}
 	
+	/**
+	 * Move the box to the specified corners, which are copied
+	 */
 	public void setPosition(Vector3 first, Vector3 second)
 	{
-		this.first = first;
-		this.second = second;
+		this.setPosition(first.getX(), first.getY(), first.getZ(), second.getX(), second.getY(), second.getZ());
+	}
+	
+	public void setPosition(double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		this.first.set(x1, y1, z1);
+		this.second.set(x2, y2, z2);
+		this.invalidate();
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void tessellate(LineSink sink)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-		final Vector3 camera = ctx.cameraPos();
-		double x1 = this.first.getX() - camera.getX();
-		double y1 = this.first.getY() - camera.getY();
-		double z1 = this.first.getZ() - camera.getZ();
-		double x2 = this.second.getX() - camera.getX();
-		double y2 = this.second.getY() - camera.getY();
-		double z2 = this.second.getZ() - camera.getZ();
+		double x1 = this.first.getX();
+		double y1 = this.first.getY();
+		double z1 = this.first.getZ();
+		double x2 = this.second.getX();
+		double y2 = this.second.getY();
+		double z2 = this.second.getZ();
 		
-		for (LineStyle line : this.style.getLines())
-		{
-			if (!line.prepare(this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			// Draw bottom face
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
-			buf.vertex(x1, y1, z1).next();
-			buf.vertex(x2, y1, z1).next();
-			buf.vertex(x2, y1, z2).next();
-			buf.vertex(x1, y1, z2).next();
-			tessellator.draw();
-			
-			// Draw top face
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
-			buf.vertex(x1, y2, z1).next();
-			buf.vertex(x2, y2, z1).next();
-			buf.vertex(x2, y2, z2).next();
-			buf.vertex(x1, y2, z2).next();
-			tessellator.draw();
-			
-			// Draw join top and bottom faces
-			buf.begin(GL11.GL_LINES, VertexFormats.POSITION);
-			line.applyColour();
-			
-			buf.vertex(x1, y1, z1).next();
-			buf.vertex(x1, y2, z1).next();
-			
-			buf.vertex(x2, y1, z1).next();
-			buf.vertex(x2, y2, z1).next();
-			
-			buf.vertex(x2, y1, z2).next();
-			buf.vertex(x2, y2, z2).next();
-			
-			buf.vertex(x1, y1, z2).next();
-			buf.vertex(x1, y2, z2).next();
-			
-			tessellator.draw();
-		}
+		// Draw bottom face
+		sink.beginLoop();
+		sink.loopVertex(x1, y1, z1);
+		sink.loopVertex(x2, y1, z1);
+		sink.loopVertex(x2, y1, z2);
+		sink.loopVertex(x1, y1, z2);
+		sink.endLoop();
+		
+		// Draw top face
+		sink.beginLoop();
+		sink.loopVertex(x1, y2, z1);
+		sink.loopVertex(x2, y2, z1);
+		sink.loopVertex(x2, y2, z2);
+		sink.loopVertex(x1, y2, z2);
+		sink.endLoop();
+		
+		// Draw join top and bottom faces
+		sink.line(x1, y1, z1, x1, y2, z1);
+		sink.line(x2, y1, z1, x2, y2, z1);
+		sink.line(x2, y1, z2, x2, y2, z2);
+		sink.line(x1, y1, z2, x1, y2, z2);
 	}
 }
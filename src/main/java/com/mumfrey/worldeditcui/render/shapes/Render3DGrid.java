@@ -1,15 +1,13 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mojang.blaze3d.platform.GlStateManager;
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.util.BoundingBox;
 import com.mumfrey.worldeditcui.util.Observable;
 import com.mumfrey.worldeditcui.util.Vector3;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
+import com.mumfrey.worldeditcui.util.Vector3m;
 import net.minecraft.util.math.MathHelper;
 import org.lwjgl.opengl.GL11;
 
@@ -25,8 +23,24 @@ public class Render3DGrid extends RenderRegion
 	private static final float CULL_RANGE = 128.0F;
 	public static final double MIN_SPACING = 1.0;
 	
-	private Vector3 first, second;
+	/**
+	 * Faces of the box as quads of corners, bit 0 of a corner selects the max
+	 * x, bit 1 the max y and bit 2 the max z
+	 */
+	private static final int[] FACE_CORNERS = {
+		0, 1, 5, 4, // bottom
+		2, 3, 7, 6, // top
+		0, 4, 6, 2, // west
+		1, 3, 7, 5, // east
+		0, 2, 3, 1, // north
+		4, 5, 7, 6, // south
+	};
+	
+	private final GeometryBuffer faces = new GeometryBuffer(GL11.GL_QUADS);
+	
+	private final Vector3m first = new Vector3m(), second = new Vector3m();
 	private double spacing = 1.0;
+	private int anchorX, anchorY, anchorZ;
 	
 	public Render3DGrid(RenderStyle style, BoundingBox region)
 	{
@@ -40,8 +54,8 @@ public class Render3DGrid extends RenderRegion
 	public Render3DGrid(RenderStyle style, Vector3 first, Vector3 second)
 	{
 		super(style);
-		this.first = first;
-		this.second = second;
+		this.first.set(first.getX(), first.getY(), first.getZ());
+		this.second.set(second.getX(), second.getY(), second.getZ());
 	}
 	
 	@Override
@@ -55,59 +69,93 @@ public class Render3DGrid extends RenderRegion
 		this.setPosition(region.getMin(), region.getMax());
 	}
 	
+	/**
+	 * Move the grid to the specified corners, which are copied
+	 */
 	public void setPosition(Vector3 first, Vector3 second)
 	{
-		this.first = first;
-		this.second = second;
+		this.setPosition(first.getX(), first.getY(), first.getZ(), second.getX(), second.getY(), second.getZ());
+	}
+	
+	/**
+	 * Move the grid to the specified corners, only rebuilding it if they are
+	 * different from the current ones
+	 */
+	public void setPosition(double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		if (x1 != this.first.getX() || y1 != this.first.getY() || z1 != this.first.getZ()
+				|| x2 != this.second.getX() || y2 != this.second.getY() || z2 != this.second.getZ())
+		{
+			this.first.set(x1, y1, z1);
+			this.second.set(x2, y2, z2);
+			this.invalidate();
+		}
 	}
 	
 	public Render3DGrid setSpacing(double spacing)
 	{
-		this.spacing = spacing;
+		if (spacing != this.spacing)
+		{
+			this.spacing = spacing;
+			this.invalidate();
+		}
 		return this;
 	}
 	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
+		// Lines are only generated near the camera, the window is anchored to
+		// a coarse cell so that it only needs rebuilding when the camera
+		// crosses into a different cell
 		final Vector3 camera = ctx.cameraPos();
-		double x1 = this.first.getX() - camera.getX();
-		double y1 = this.first.getY() - camera.getY();
-		double z1 = this.first.getZ() - camera.getZ();
-		double x2 = this.second.getX() - camera.getX();
-		double y2 = this.second.getY() - camera.getY();
-		double z2 = this.second.getZ() - camera.getZ();
-
+		final double cell = this.getCullCellSize();
+		final int anchorX = MathHelper.floor(camera.getX() / cell);
+		final int anchorY = MathHelper.floor(camera.getY() / cell);
+		final int anchorZ = MathHelper.floor(camera.getZ() / cell);
+		if (anchorX != this.anchorX || anchorY != this.anchorY || anchorZ != this.anchorZ)
+		{
+			this.anchorX = anchorX;
+			this.anchorY = anchorY;
+			this.anchorZ = anchorZ;
+			this.invalidate();
+		}
+		
+		this.compile();
+		
 		if (this.spacing != 1.0)
 		{
-			GlStateManager.disableCull();
-			
-			double[] vertices = {
-					x1, y1, z1,  x2, y1, z1,  x2, y1, z2,  x1, y1, z2, // bottom
-					x1, y2, z1,  x2, y2, z1,  x2, y2, z2,  x1, y2, z2, // top
-					x1, y1, z1,  x1, y1, z2,  x1, y2, z2,  x1, y2, z1, // west
-					x2, y1, z1,  x2, y2, z1,  x2, y2, z2,  x2, y1, z2, // east
-					x1, y1, z1,  x1, y2, z1,  x2, y2, z1,  x2, y1, z1, // north
-					x1, y1, z2,  x2, y1, z2,  x2, y2, z2,  x1, y2, z2  // south
-			};
-			
-			for (LineStyle line : this.style.getLines())
+			this.draw(ctx, this.faces, 0.25F);
+		}
+		
+		if (this.spacing >= Render3DGrid.MIN_SPACING)
+		{
+			super.render(ctx);
+		}
+	}
+	
+	private double getCullCellSize()
+	{
+		return Render3DGrid.CULL_RANGE * this.spacing / 4.0;
+	}
+	
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		double x1 = this.first.getX();
+		double y1 = this.first.getY();
+		double z1 = this.first.getZ();
+		double x2 = this.second.getX();
+		double y2 = this.second.getY();
+		double z2 = this.second.getZ();
+		
+		this.faces.reset();
+		if (this.spacing != 1.0)
+		{
+			for (int corner : Render3DGrid.FACE_CORNERS)
 			{
-				if (line.prepare(this.style.getRenderType()))
-				{
-					buf.begin(GL11.GL_QUADS, VertexFormats.POSITION);
-					line.applyColour(0.25F);
-					for (int i = 0; i < vertices.length; i += 3)
-					{
-						buf.vertex(vertices[i], vertices[i + 1], vertices[i + 2]).next();
-					}
-					tessellator.draw();
-				}
+				this.faces.vertex((corner & 1) == 0 ? x1 : x2, (corner & 2) == 0 ? y1 : y2, (corner & 4) == 0 ? z1 : z2);
 			}
-
-			GlStateManager.enableCull();
 		}
 		
 		if (this.spacing < Render3DGrid.MIN_SPACING)
@@ -115,57 +163,45 @@ public class Render3DGrid extends RenderRegion
 			return;
 		}
 		
+		// Anything within cull range of any camera position inside the anchor cell
+		final double cell = this.getCullCellSize();
 		final double cullAt = Render3DGrid.CULL_RANGE * this.spacing;
-		final double cullAtY = cullAt - MathHelper.fractionalPart(y1);
-		final double cullAtX = cullAt - MathHelper.fractionalPart(x1);
-		final double cullAtZ = cullAt - MathHelper.fractionalPart(z1);
-		for (LineStyle line : this.style.getLines())
+		
+		for (double y = this.firstLine(y1 + OFFSET, this.anchorY * cell - cullAt); y <= y2 + OFFSET && y <= (this.anchorY + 1) * cell + cullAt; y += this.spacing)
 		{
-			if (!line.prepare(this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			buf.begin(GL11.GL_LINES, VertexFormats.POSITION);
-			line.applyColour();
-
-			for (double y = Math.max(y1, -cullAtY) + OFFSET; y <= y2 + OFFSET && y <= cullAtY; y += this.spacing)
-			{
-				buf.vertex(x1, y, z2).next();
-				buf.vertex(x2, y, z2).next();
-				buf.vertex(x1, y, z1).next();
-				buf.vertex(x2, y, z1).next();
-				buf.vertex(x1, y, z1).next();
-				buf.vertex(x1, y, z2).next();
-				buf.vertex(x2, y, z1).next();
-				buf.vertex(x2, y, z2).next();
-			}
-			
-			for (double x = Math.max(x1, -cullAtX); x <= x2 && x <= cullAtX; x += this.spacing)
-			{
-				buf.vertex(x, y1, z1).next();
-				buf.vertex(x, y2, z1).next();
-				buf.vertex(x, y1, z2).next();
-				buf.vertex(x, y2, z2).next();
-				buf.vertex(x, y2, z1).next();
-				buf.vertex(x, y2, z2).next();
-				buf.vertex(x, y1, z1).next();
-				buf.vertex(x, y1, z2).next();
-			}
-			
-			for (double z = Math.max(z1, -cullAtZ); z <= z2 && z <= cullAtZ; z += this.spacing)
-			{
-				buf.vertex(x1, y1, z).next();
-				buf.vertex(x2, y1, z).next();
-				buf.vertex(x1, y2, z).next();
-				buf.vertex(x2, y2, z).next();
-				buf.vertex(x2, y1, z).next();
-				buf.vertex(x2, y2, z).next();
-				buf.vertex(x1, y1, z).next();
-				buf.vertex(x1, y2, z).next();
-			}
-			
-			tessellator.draw();
+			sink.line(x1, y, z2, x2, y, z2);
+			sink.line(x1, y, z1, x2, y, z1);
+			sink.line(x1, y, z1, x1, y, z2);
+			sink.line(x2, y, z1, x2, y, z2);
 		}
+		
+		for (double x = this.firstLine(x1, this.anchorX * cell - cullAt); x <= x2 && x <= (this.anchorX + 1) * cell + cullAt; x += this.spacing)
+		{
+			sink.line(x, y1, z1, x, y2, z1);
+			sink.line(x, y1, z2, x, y2, z2);
+			sink.line(x, y2, z1, x, y2, z2);
+			sink.line(x, y1, z1, x, y1, z2);
+		}
+		
+		for (double z = this.firstLine(z1, this.anchorZ * cell - cullAt); z <= z2 && z <= (this.anchorZ + 1) * cell + cullAt; z += this.spacing)
+		{
+			sink.line(x1, y1, z, x2, y1, z);
+			sink.line(x1, y2, z, x2, y2, z);
+			sink.line(x2, y1, z, x2, y2, z);
+			sink.line(x1, y1, z, x1, y2, z);
+		}
+	}
+	
+	/**
+	 * Get the first grid line at or after the specified lower limit
+	 */
+	private double firstLine(double start, double limit)
+	{
+		if (limit <= start)
+		{
+			return start;
+		}
+		
+		return start + Math.ceil((limit - start) / this.spacing) * this.spacing;
 	}
 }
@@ -1,13 +1,8 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.util.Vector3;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
 
 /**
  * Draws a polygon
@@ -27,25 +22,13 @@ public class Render3DPolygon extends RenderRegion
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void tessellate(LineSink sink)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-		
-		for (LineStyle line : this.style.getLines())
+		sink.beginLoop();
+		for (Vector3 vertex : this.vertices)
 		{
-			if (!line.prepare(this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
-			for (Vector3 vertex : this.vertices)
-			{
-				buf.vertex(vertex.getX() - ctx.cameraPos().getX(), vertex.getY() - ctx.cameraPos().getY(), vertex.getZ() - ctx.cameraPos().getZ()).next();
-			}
-			tessellator.draw();
+			sink.loopVertex(vertex.getX(), vertex.getY(), vertex.getZ());
 		}
+		sink.endLoop();
 	}
 }
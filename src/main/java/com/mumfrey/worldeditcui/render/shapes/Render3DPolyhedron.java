@@ -0,0 +1,204 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.RenderStyle;
+import com.mumfrey.worldeditcui.util.LongHashSet;
+import org.lwjgl.opengl.GL11;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Draws the edges of a polyhedron, stored as an indexed mesh: one array of
+ * vertex coordinates and one array of edges as pairs of vertex indices. Faces
+ * are broken up into edges as they are added and each edge shared between
+ * faces is only stored, and drawn, once.
+ *
+ * <p>New edges are appended to the geometry as faces are added instead of the
+ * shape being rebuilt, so a polyhedron which arrives from the server one face
+ * at a time costs the same for each face, and is drawn progressively while the
+ * faces are still arriving. The geometry is split into slices of consecutive
+ * edges which are culled against the view frustum individually.</p>
+ */
+public class Render3DPolyhedron extends RenderRegion
+{
+	private static final int SLICE_VERTICES = 2048;
+	
+	private double[] coords = new double[64 * 3];
+	private int vertexCount;
+	
+	private int[] edges = new int[128 * 2];
+	private int edgeCount;
+	private final LongHashSet edgeKeys = new LongHashSet();
+	private final BitSet edgeVertices = new BitSet(); // vertices at either end of an edge
+	private int faceCount;
+	
+	private final List<GeometryBuffer> slices = new ArrayList<>();
+	private int sliceCount;
+	private boolean rebuild;
+	
+	public Render3DPolyhedron(RenderStyle style)
+	{
+		super(style);
+	}
+	
+	public int getFaceCount()
+	{
+		return this.faceCount;
+	}
+	
+	public int getEdgeCount()
+	{
+		return this.edgeCount;
+	}
+	
+	/**
+	 * Set the position of a vertex, in world coordinates. Moving a vertex
+	 * which is already part of an edge rebuilds the geometry before the next
+	 * frame, setting any other vertex does not.
+	 */
+	public void setVertex(int id, double x, double y, double z)
+	{
+		if (id < 0 || id >= Integer.MAX_VALUE / 3)
+		{
+			throw new IllegalArgumentException("Invalid vertex id " + id);
+		}
+		
+		if ((id + 1) * 3 > this.coords.length)
+		{
+			this.coords = Arrays.copyOf(this.coords, Math.max((id + 1) * 3, this.coords.length * 2));
+		}
+		
+		if (this.edgeVertices.get(id))
+		{
+			this.rebuild = true;
+		}
+		
+		this.coords[id * 3] = x;
+		this.coords[id * 3 + 1] = y;
+		this.coords[id * 3 + 2] = z;
+		this.vertexCount = Math.max(this.vertexCount, id + 1);
+	}
+	
+	/**
+	 * Add a face, given as the indices of its vertices in order around the
+	 * face
+	 *
+	 * @return false if the face refers to a vertex which has not been set
+	 */
+	public boolean addFace(int[] vertexIds)
+	{
+		for (int id : vertexIds)
+		{
+			if (id < 0 || id >= this.vertexCount)
+			{
+				return false;
+			}
+		}
+		
+		this.faceCount++;
+		for (int i = 0; i < vertexIds.length; i++)
+		{
+			int a = vertexIds[i], b = vertexIds[(i + 1) % vertexIds.length];
+			if (a != b && this.edgeKeys.add(Render3DPolyhedron.edgeKey(a, b)))
+			{
+				this.addEdge(a, b);
+			}
+		}
+		
+		return true;
+	}
+	
+	@Override
+	public void render(CUIRenderContext ctx)
+	{
+		if (this.rebuild)
+		{
+			this.rebuild();
+		}
+		
+		for (int i = 0; i < this.sliceCount; i++)
+		{
+			this.draw(ctx, this.slices.get(i), 1.0F);
+		}
+	}
+	
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		for (int i = 0; i < this.edgeCount; i++)
+		{
+			this.drawEdge(sink, i);
+		}
+	}
+	
+	private void addEdge(int a, int b)
+	{
+		if (this.edgeCount * 2 == this.edges.length)
+		{
+			this.edges = Arrays.copyOf(this.edges, this.edges.length * 2);
+		}
+		
+		this.edges[this.edgeCount * 2] = a;
+		this.edges[this.edgeCount * 2 + 1] = b;
+		this.edgeVertices.set(a);
+		this.edgeVertices.set(b);
+		
+		if (!this.rebuild)
+		{
+			this.drawEdge(this.getSlice(), this.edgeCount);
+		}
+		
+		this.edgeCount++;
+	}
+	
+	private void rebuild()
+	{
+		this.rebuild = false;
+		for (int i = 0; i < this.sliceCount; i++)
+		{
+			this.slices.get(i).reset();
+		}
+		this.sliceCount = 0;
+		
+		for (int i = 0; i < this.edgeCount; i++)
+		{
+			this.drawEdge(this.getSlice(), i);
+		}
+	}
+	
+	/**
+	 * Get the slice to append the next edge to
+	 */
+	private GeometryBuffer getSlice()
+	{
+		if (this.sliceCount > 0 && this.slices.get(this.sliceCount - 1).getVertexCount() < Render3DPolyhedron.SLICE_VERTICES)
+		{
+			return this.slices.get(this.sliceCount - 1);
+		}
+		
+		if (this.sliceCount == this.slices.size())
+		{
+			this.slices.add(new GeometryBuffer(GL11.GL_LINES));
+		}
+		
+		return this.slices.get(this.sliceCount++);
+	}
+	
+	private void drawEdge(LineSink sink, int edge)
+	{
+		int a = this.edges[edge * 2] * 3, b = this.edges[edge * 2 + 1] * 3;
+		double[] coords = this.coords;
+		sink.line(coords[a], coords[a + 1], coords[a + 2], coords[b], coords[b + 1], coords[b + 2]);
+	}
+	
+	private static long edgeKey(int a, int b)
+	{
+		// Never zero, since the larger index of a real edge is at least 1
+		return a < b ? ((long)a << 32) | b : ((long)b << 32) | a;
+	}
+}
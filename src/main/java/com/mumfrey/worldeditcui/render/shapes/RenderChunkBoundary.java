@@ -1,23 +1,23 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mojang.blaze3d.platform.GlStateManager;
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import com.mumfrey.worldeditcui.render.ImmediateLineSink;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.LineStyle;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.util.Vector3;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.Heightmap;
 import net.minecraft.world.chunk.Chunk;
-import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
 
 public class RenderChunkBoundary extends RenderRegion
 {
 	private final MinecraftClient mc;
 	private final Render3DGrid grid;
+	private final int[] lastHeight = new int[4];
 	
 	public RenderChunkBoundary(RenderStyle boundaryStyle, RenderStyle gridStyle, MinecraftClient minecraft)
 	{
@@ -30,116 +30,96 @@ public class RenderChunkBoundary extends RenderRegion
 	}
 	
 	@Override
-	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
 	public void render(CUIRenderContext ctx)
 	{
 		double yMax = this.mc.world != null ? this.mc.world.getHeight() : 256.0;
 		double yMin = 0.0;
 		
-		long xBlock = MathHelper.floor(ctx.cameraPos().getX());
-		long zBlock = MathHelper.floor(ctx.cameraPos().getZ());
-		
-		int xChunk = (int)(xBlock >> 4);
-		int zChunk = (int)(zBlock >> 4);
-		
-		double xBase = 0 - (xBlock - (xChunk * 16)) - (ctx.cameraPos().getX() - xBlock);
-		double zBase = (0 - (zBlock - (zChunk * 16)) - (ctx.cameraPos().getZ() - zBlock)) + 16;
+		int xChunk = MathHelper.floor(ctx.cameraPos().getX()) >> 4;
+		int zChunk = MathHelper.floor(ctx.cameraPos().getZ()) >> 4;
 		
-		this.grid.setPosition(new Vector3(xBase - OFFSET, yMin, zBase - 16 - OFFSET), new Vector3(xBase + 16 + OFFSET, yMax, zBase + OFFSET));
-
-		GlStateManager.pushMatrix();
-		GlStateManager.translated(0.0, -ctx.cameraPos().getY(), 0.0);
-
-		ctx.withCameraAt(Vector3.ZERO, this.grid::render);
+		// The grid is positioned in world coordinates so that its geometry is
+		// only rebuilt when the camera moves into a different chunk
+		this.grid.setPosition((xChunk << 4) - OFFSET, yMin, (zChunk << 4) - OFFSET, (xChunk << 4) + 16 + OFFSET, yMax, (zChunk << 4) + 16 + OFFSET);
+		this.grid.render(ctx);
 
-		this.renderChunkBorder(yMin, yMax, xBase, zBase);
+		ImmediateLineSink sink = ctx.immediateLines();
+		sink.begin(ctx.cameraPos());
 		
-		if (this.mc.world != null)
+		for (LineStyle line : this.style.getLines())
 		{
-			this.renderChunkBoundary(xChunk, zChunk, xBase, zBase);
+			if (line.matches(this.style.getRenderType()))
+			{
+				sink.setStyle(line);
+				this.renderChunkBorder(sink, yMin, yMax, xChunk << 4, zChunk << 4);
+				
+				if (this.mc.world != null)
+				{
+					this.renderChunkBoundary(sink, xChunk, zChunk);
+				}
+			}
 		}
-
-		GlStateManager.popMatrix();
+		
+		sink.end();
 	}
 
-	private void renderChunkBorder(double yMin, double yMax, double xBase, double zBase)
+	@Override
+	protected void tessellate(LineSink sink)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
+		// Chunk borders follow the camera and the height map, so they are
+		// drawn directly in render() rather than being retained
+	}
 
+	private void renderChunkBorder(LineSink sink, double yMin, double yMax, int xOrigin, int zOrigin)
+	{
 		int spacing = 16;
 		
-		for (LineStyle line : this.style.getLines())
+		for (int x = -16; x <= 32; x += spacing)
 		{
-			if (line.prepare(this.style.getRenderType()))
+			for (int z = -16; z <= 32; z += spacing)
 			{
-				buf.begin(GL11.GL_LINES, VertexFormats.POSITION);
-				line.applyColour();
-				
-				for (int x = -16; x <= 32; x += spacing)
-				{
-					for (int z = -16; z <= 32; z += spacing)
-					{
-						buf.vertex(xBase + x, yMin, zBase - z).next();
-						buf.vertex(xBase + x, yMax, zBase - z).next();
-					}
-				}
-				
-				for (double y = yMin; y <= yMax; y += yMax)
-				{
-					buf.vertex(xBase, y, zBase).next();
-					buf.vertex(xBase, y, zBase - 16).next();
-					buf.vertex(xBase, y, zBase - 16).next();
-					buf.vertex(xBase + 16, y, zBase - 16).next();
-					buf.vertex(xBase + 16, y, zBase - 16).next();
-					buf.vertex(xBase + 16, y, zBase).next();
-					buf.vertex(xBase + 16, y, zBase).next();
-					buf.vertex(xBase, y, zBase).next();
-				}
-
-				tessellator.draw();
+				sink.line(xOrigin + x, yMin, zOrigin + 16 - z, xOrigin + x, yMax, zOrigin + 16 - z);
 			}
 		}
+		
+		for (double y = yMin; y <= yMax; y += yMax)
+		{
+			sink.beginLoop();
+			sink.loopVertex(xOrigin, y, zOrigin + 16);
+			sink.loopVertex(xOrigin, y, zOrigin);
+			sink.loopVertex(xOrigin + 16, y, zOrigin);
+			sink.loopVertex(xOrigin + 16, y, zOrigin + 16);
+			sink.endLoop();
+		}
 	}
 
-	private void renderChunkBoundary(int xChunk, int zChunk, double xBase, double zBase)
+	private void renderChunkBoundary(LineSink sink, int xChunk, int zChunk)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
 		Chunk chunk = this.mc.world.getChunk(xChunk, zChunk);
 		Heightmap heightMap = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE);
+		int xOrigin = xChunk << 4;
+		int zOrigin = zChunk << 4;
 
-		for (LineStyle line : this.style.getLines())
+		// Last height along each edge, indexed by axis * 2 + j
+		int[] lastHeight = this.lastHeight;
+		Arrays.fill(lastHeight, -1);
+		for (int i = 0, height = 0; i < 16; i++)
 		{
-			if (line.prepare(this.style.getRenderType()))
+			for (int j = 0; j < 2; j++)
 			{
-				buf.begin(GL11.GL_LINES, VertexFormats.POSITION);
-				line.applyColour();
-
-				int[][] lastHeight = { { -1, -1 }, { -1, -1 } };
-				for (int i = 0, height = 0; i < 16; i++)
+				for (int axis = 0; axis < 2; axis++)
 				{
-					for (int j = 0; j < 2; j++)
+					height = axis == 0 ? heightMap.get(j * 15, i) : heightMap.get(i, j * 15);
+					double xPos = axis == 0 ? xOrigin + (j * 16) : xOrigin + i;
+					double zPos = axis == 0 ? zOrigin + i : zOrigin + (j * 16);
+					int edge = axis * 2 + j;
+					if (lastHeight[edge] > -1 && height != lastHeight[edge])
 					{
-						for (int axis = 0; axis < 2; axis++)
-						{
-							height = axis == 0 ? heightMap.get(j * 15, i) : heightMap.get(i, j * 15);
-							double xPos = axis == 0 ? xBase + (j * 16) : xBase + i;
-							double zPos = axis == 0 ? zBase - 16 + i : zBase - 16 + (j * 16);
-							if (lastHeight[axis][j] > -1 && height != lastHeight[axis][j])
-							{
-								buf.vertex(xPos, lastHeight[axis][j] + OFFSET, zPos).next();
-								buf.vertex(xPos, height + OFFSET, zPos).next();
-							}
-							buf.vertex(xPos, height + OFFSET, zPos).next();
-							buf.vertex(xPos + axis, height + OFFSET, zPos + (1 - axis)).next();
-							lastHeight[axis][j] = height;
-						}
+						sink.line(xPos, lastHeight[edge] + OFFSET, zPos, xPos, height + OFFSET, zPos);
 					}
+					sink.line(xPos, height + OFFSET, zPos, xPos + axis, height + OFFSET, zPos + (1 - axis));
+					lastHeight[edge] = height;
 				}
-				
-				tessellator.draw();
 			}
 		}
 	}
@@ -1,13 +1,9 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointCube;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
+import com.mumfrey.worldeditcui.util.UnitCircle;
 
 /**
  * Draws the top and bottom circles around a cylindrical region
@@ -17,6 +13,8 @@ import org.lwjgl.opengl.GL11;
  */
 public class RenderCylinderBox extends RenderRegion
 {
+	private static final int SEGMENTS = 75;
+	
 	private final double radX, radZ;
 	private final int minY, maxY;
 	private final double centreX, centreZ;
@@ -33,37 +31,17 @@ public class RenderCylinderBox extends RenderRegion
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void tessellate(LineSink sink)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
-		double xPos = this.centreX - ctx.cameraPos().getX();
-		double zPos = this.centreZ - ctx.cameraPos().getZ();
-
-		for (LineStyle line : this.style.getLines())
+		UnitCircle circle = UnitCircle.of(SEGMENTS);
+		for (int yBlock : new int[] { this.minY, this.maxY + 1 })
 		{
-			if (!line.prepare(this.style.getRenderType()))
+			sink.beginLoop();
+			for (int i = 0; i < SEGMENTS; i++)
 			{
-				continue;
-			}
-			
-			double twoPi = Math.PI * 2;
-			for (int yBlock : new int[] { this.minY, this.maxY + 1 })
-			{
-				buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-				line.applyColour();
-				
-				for (int i = 0; i <= 75; i++)
-				{
-					double tempTheta = i * twoPi / 75;
-					double tempX = this.radX * Math.cos(tempTheta);
-					double tempZ = this.radZ * Math.sin(tempTheta);
-
-					buf.vertex(xPos + tempX, yBlock - ctx.cameraPos().getY(), zPos + tempZ).next();
-				}
-				tessellator.draw();
+				sink.loopVertex(this.centreX + this.radX * circle.cos(i), yBlock, this.centreZ + this.radZ * circle.sin(i));
 			}
+			sink.endLoop();
 		}
 	}
 }
@@ -1,13 +1,14 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LayerBand;
+import com.mumfrey.worldeditcui.render.LayeredGeometry;
+import com.mumfrey.worldeditcui.render.LevelOfDetail;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointCube;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
+import com.mumfrey.worldeditcui.util.UnitCircle;
+import com.mumfrey.worldeditcui.util.Vector3;
 
 /**
  * Draws the circles around a cylindrical region
@@ -15,14 +16,18 @@ import org.lwjgl.opengl.GL11;
  * @author yetanotherx
  * @author Adam Mummery-Smith
  */
-public class RenderCylinderCircles extends RenderRegion
+public class RenderCylinderCircles extends RenderLayers
 {
+	private static final int SEGMENTS = 75;
+	
 	private final double radX;
 	private final double radZ;
 	private final int minY;
 	private final int maxY;
 	private final double centreX;
 	private final double centreZ;
+	private final LevelOfDetail lod = new LevelOfDetail();
+	private final LayerBand band = new LayerBand();
 	
 	public RenderCylinderCircles(RenderStyle style, PointCube centre, double radX, double radZ, int minY, int maxY)
 	{
@@ -38,35 +43,50 @@ public class RenderCylinderCircles extends RenderRegion
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
-		double xPos = this.centreX - ctx.cameraPos().getX();
-		double zPos = this.centreZ - ctx.cameraPos().getZ();
+		Vector3 camera = ctx.cameraPos();
+		double dx = camera.getX() - this.centreX, dz = camera.getZ() - this.centreZ;
+		double dy = camera.getY() < this.minY ? this.minY - camera.getY() : camera.getY() > this.maxY ? camera.getY() - this.maxY : 0.0;
+		double axis = Math.sqrt(dx * dx + dz * dz);
+		double minRadius = Math.min(this.radX, this.radZ);
+		double maxRadius = Math.max(this.radX, this.radZ);
+		double wall = axis > maxRadius ? axis - maxRadius : axis < minRadius ? minRadius - axis : 0.0;
 		
-		for (LineStyle line : this.style.getLines())
+		if (this.lod.update(ctx, Math.sqrt(wall * wall + dy * dy), Math.sqrt(axis * axis + dy * dy), maxRadius, SEGMENTS))
 		{
-			if (!line.prepare(this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			double twoPi = Math.PI * 2;
-			for (int yBlock = this.minY + 1; yBlock <= this.maxY; yBlock++)
+			this.invalidateOutline();
+			this.invalidateLayers();
+		}
+		
+		if (this.band.update(ctx, this.minY, this.maxY))
+		{
+			this.invalidateLayers();
+		}
+		
+		super.render(ctx);
+	}
+
+	@Override
+	protected void addLayers(LayeredGeometry layers)
+	{
+		int step = this.lod.getRingStep();
+		for (int yBlock = this.minY + step; yBlock <= this.maxY; yBlock += step)
+		{
+			if (this.band.isDrawn(yBlock, this.minY, this.maxY))
 			{
-				buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-				line.applyColour();
-				
-				for (int i = 0; i <= 75; i++)
-				{
-					double tempTheta = i * twoPi / 75;
-					double tempX = this.radX * Math.cos(tempTheta);
-					double tempZ = this.radZ * Math.sin(tempTheta);
-					
-					buf.vertex(xPos + tempX, yBlock - ctx.cameraPos().getY(), zPos + tempZ).next();
-				}
-				tessellator.draw();
+				layers.addLayer(yBlock);
 			}
 		}
 	}
+	
+	@Override
+	protected void tessellateOutline(LineSink sink, double height)
+	{
+		UnitCircle circle = UnitCircle.of(this.lod.getSegments(SEGMENTS));
+		sink.beginLoop();
+		for (int i = 0; i < circle.segments(); i++)
+		{
+			sink.loopVertex(this.centreX + this.radX * circle.cos(i), height, this.centreZ + this.radZ * circle.sin(i));
+		}
+		sink.endLoop();
+	}
 }
@@ -1,13 +1,9 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointCube;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
+import com.mumfrey.worldeditcui.util.UnitCircle;
 
 /**
  * Draws the grid lines around a cylindrical region
@@ -36,56 +32,51 @@ public class RenderCylinderGrid extends RenderRegion
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected boolean isBackgroundTessellated()
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
+		return true;
+	}
+	
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		int tmaxY = this.maxY + 1;
+		int tminY = this.minY;
+		int posRadiusX = (int)Math.ceil(this.radX);
+		int negRadiusX = (int)-Math.ceil(this.radX);
+		int posRadiusZ = (int)Math.ceil(this.radZ);
+		int negRadiusZ = (int)-Math.ceil(this.radZ);
 		
-		double xPos = this.centreX - ctx.cameraPos().getX();
-		double zPos = this.centreZ - ctx.cameraPos().getZ();
-
-		for (LineStyle line : this.style.getLines())
+		for (double tempX = negRadiusX; tempX <= posRadiusX; ++tempX)
 		{
-			if (!line.prepare(this.style.getRenderType()))
+			double tempZ = this.radZ * UnitCircle.slice(tempX, this.radX);
+			if (Double.isNaN(tempZ))
 			{
 				continue;
 			}
 			
-			int tmaxY = this.maxY + 1;
-			int tminY = this.minY;
-			int posRadiusX = (int)Math.ceil(this.radX);
-			int negRadiusX = (int)-Math.ceil(this.radX);
-			int posRadiusZ = (int)Math.ceil(this.radZ);
-			int negRadiusZ = (int)-Math.ceil(this.radZ);
-			final double cameraY = ctx.cameraPos().getY();
-			
-			for (double tempX = negRadiusX; tempX <= posRadiusX; ++tempX)
+			sink.beginLoop();
+			sink.loopVertex(this.centreX + tempX, tmaxY, this.centreZ + tempZ);
+			sink.loopVertex(this.centreX + tempX, tmaxY, this.centreZ - tempZ);
+			sink.loopVertex(this.centreX + tempX, tminY, this.centreZ - tempZ);
+			sink.loopVertex(this.centreX + tempX, tminY, this.centreZ + tempZ);
+			sink.endLoop();
+		}
+		
+		for (double tempZ = negRadiusZ; tempZ <= posRadiusZ; ++tempZ)
+		{
+			double tempX = this.radX * UnitCircle.slice(tempZ, this.radZ);
+			if (Double.isNaN(tempX))
 			{
-				double tempZ = this.radZ * Math.cos(Math.asin(tempX / this.radX));
-				buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-				line.applyColour();
-				
-				buf.vertex(xPos + tempX, tmaxY - cameraY, zPos + tempZ).next();
-				buf.vertex(xPos + tempX, tmaxY - cameraY, zPos - tempZ).next();
-				buf.vertex(xPos + tempX, tminY - cameraY, zPos - tempZ).next();
-				buf.vertex(xPos + tempX, tminY - cameraY, zPos + tempZ).next();
-				
-				tessellator.draw();
+				continue;
 			}
 			
-			for (double tempZ = negRadiusZ; tempZ <= posRadiusZ; ++tempZ)
-			{
-				double tempX = this.radX * Math.sin(Math.acos(tempZ / this.radZ));
-				buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-				line.applyColour();
-				
-				buf.vertex(xPos + tempX, tmaxY - cameraY, zPos + tempZ).next();
-				buf.vertex(xPos - tempX, tmaxY - cameraY, zPos + tempZ).next();
-				buf.vertex(xPos - tempX, tminY - cameraY, zPos + tempZ).next();
-				buf.vertex(xPos + tempX, tminY - cameraY, zPos + tempZ).next();
-				
-				tessellator.draw();
-			}
+			sink.beginLoop();
+			sink.loopVertex(this.centreX + tempX, tmaxY, this.centreZ + tempZ);
+			sink.loopVertex(this.centreX - tempX, tmaxY, this.centreZ + tempZ);
+			sink.loopVertex(this.centreX - tempX, tminY, this.centreZ + tempZ);
+			sink.loopVertex(this.centreX + tempX, tminY, this.centreZ + tempZ);
+			sink.endLoop();
 		}
 	}
 }
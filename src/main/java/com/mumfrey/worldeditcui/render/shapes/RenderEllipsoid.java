@@ -1,15 +1,12 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
-import com.mojang.blaze3d.platform.GlStateManager;
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
-import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.LevelOfDetail;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.render.points.PointCube;
+import com.mumfrey.worldeditcui.util.UnitCircle;
 import com.mumfrey.worldeditcui.util.Vector3;
-import net.minecraft.client.render.BufferBuilder;
-import net.minecraft.client.render.Tessellator;
-import net.minecraft.client.render.VertexFormats;
-import org.lwjgl.opengl.GL11;
 
 /**
  * Draws an ellipsoid shape around a centre point.
@@ -19,11 +16,18 @@ import org.lwjgl.opengl.GL11;
  */
 public class RenderEllipsoid extends RenderRegion
 {
-	protected final static double TAU = Math.PI * 2.0;
-	protected static final double SUBDIVISIONS = 40;
+	protected static final int SUBDIVISIONS = 40;
 	
 	protected PointCube centre;
 	private final Vector3 radii;
+	private final LevelOfDetail lod = new LevelOfDetail();
+	
+	/**
+	 * Level of detail to build the geometry at, taken on the render thread
+	 * whenever the level changes so the background build sees the ring step
+	 * and segment count of the same frame
+	 */
+	private volatile LevelOfDetail.Level level = this.lod.getLevel();
 	
 	protected final double centreX, centreY, centreZ;
 	
@@ -38,130 +42,114 @@ public class RenderEllipsoid extends RenderRegion
 	}
 	
 	@Override
-	@SuppressWarnings("deprecation") // GLStateManager/immediate mode GL use
 	public void render(CUIRenderContext ctx)
 	{
-		GlStateManager.pushMatrix();
-		GlStateManager.translated(this.centreX - ctx.cameraPos().getX(), this.centreY - ctx.cameraPos().getY(), this.centreZ - ctx.cameraPos().getZ());
+		Vector3 camera = ctx.cameraPos();
+		double dx = camera.getX() - this.centreX, dy = camera.getY() - this.centreY, dz = camera.getZ() - this.centreZ;
+		double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+		double minRadius = Math.min(this.radii.getX(), Math.min(this.radii.getY(), this.radii.getZ()));
+		double maxRadius = Math.max(this.radii.getX(), Math.max(this.radii.getY(), this.radii.getZ()));
+		double nearest = distance > maxRadius ? distance - maxRadius : distance < minRadius ? minRadius - distance : 0.0;
 		
-		for (LineStyle line : this.style.getLines())
+		if (this.lod.update(ctx, nearest, distance, maxRadius, SUBDIVISIONS))
 		{
-			if (line.prepare(this.style.getRenderType()))
-			{
-				this.drawXZPlane(line);
-				this.drawYZPlane(line);
-				this.drawXYPlane(line);
-			}
+			this.level = this.lod.getLevel();
+			this.invalidate();
 		}
-
-		GlStateManager.popMatrix();
+		
+		super.render(ctx);
+	}
+	
+	@Override
+	protected boolean isBackgroundTessellated()
+	{
+		return true;
 	}
 	
-	protected void drawXZPlane(LineStyle line)
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		LevelOfDetail.Level level = this.level;
+		UnitCircle circle = UnitCircle.of(level.getSegments(SUBDIVISIONS));
+		int step = level.getRingStep();
+		
+		this.drawXZPlane(sink, circle, step);
+		this.drawYZPlane(sink, circle, step);
+		this.drawXYPlane(sink, circle, step);
+	}
+	
+	protected void drawXZPlane(LineSink sink, UnitCircle circle, int step)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
 		int yRad = (int)Math.floor(this.radii.getY());
-		for (int yBlock = -yRad; yBlock < yRad; yBlock++)
+		for (int yBlock = -(yRad / step) * step; yBlock < yRad; yBlock += step)
 		{
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
+			double slice = UnitCircle.slice(yBlock, this.radii.getY());
+			double radX = this.radii.getX() * slice;
+			double radZ = this.radii.getZ() * slice;
 			
-			for (int i = 0; i <= SUBDIVISIONS; i++)
+			sink.beginLoop();
+			for (int i = 0; i < circle.segments(); i++)
 			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempX = this.radii.getX() * Math.cos(tempTheta) * Math.cos(Math.asin(yBlock / this.radii.getY()));
-				double tempZ = this.radii.getZ() * Math.sin(tempTheta) * Math.cos(Math.asin(yBlock / this.radii.getY()));
-				
-				buf.vertex(tempX, yBlock, tempZ).next();
+				sink.loopVertex(this.centreX + radX * circle.cos(i), this.centreY + yBlock, this.centreZ + radZ * circle.sin(i));
 			}
-			tessellator.draw();
+			sink.endLoop();
 		}
 		
-		buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-		line.applyColour();
-		
-		for (int i = 0; i <= SUBDIVISIONS; i++)
+		sink.beginLoop();
+		for (int i = 0; i < circle.segments(); i++)
 		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempX = this.radii.getX() * Math.cos(tempTheta);
-			double tempZ = this.radii.getZ() * Math.sin(tempTheta);
-			
-			buf.vertex(tempX, 0.0, tempZ).next();
+			sink.loopVertex(this.centreX + this.radii.getX() * circle.cos(i), this.centreY, this.centreZ + this.radii.getZ() * circle.sin(i));
 		}
-		tessellator.draw();
+		sink.endLoop();
 	}
 	
-	protected void drawYZPlane(LineStyle line)
+	protected void drawYZPlane(LineSink sink, UnitCircle circle, int step)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
 		int xRad = (int)Math.floor(this.radii.getX());
-		for (int xBlock = -xRad; xBlock < xRad; xBlock++)
+		for (int xBlock = -(xRad / step) * step; xBlock < xRad; xBlock += step)
 		{
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
+			double slice = UnitCircle.slice(xBlock, this.radii.getX());
+			double radY = this.radii.getY() * slice;
+			double radZ = this.radii.getZ() * slice;
 			
-			for (int i = 0; i <= SUBDIVISIONS; i++)
+			sink.beginLoop();
+			for (int i = 0; i < circle.segments(); i++)
 			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempY = this.radii.getY() * Math.cos(tempTheta) * Math.sin(Math.acos(xBlock / this.radii.getX()));
-				double tempZ = this.radii.getZ() * Math.sin(tempTheta) * Math.sin(Math.acos(xBlock / this.radii.getX()));
-				
-				buf.vertex(xBlock, tempY, tempZ).next();
+				sink.loopVertex(this.centreX + xBlock, this.centreY + radY * circle.cos(i), this.centreZ + radZ * circle.sin(i));
 			}
-			tessellator.draw();
+			sink.endLoop();
 		}
 		
-		buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-		line.applyColour();
-		
-		for (int i = 0; i <= SUBDIVISIONS; i++)
+		sink.beginLoop();
+		for (int i = 0; i < circle.segments(); i++)
 		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempY = this.radii.getY() * Math.cos(tempTheta);
-			double tempZ = this.radii.getZ() * Math.sin(tempTheta);
-			
-			buf.vertex(0.0, tempY, tempZ).next();
+			sink.loopVertex(this.centreX, this.centreY + this.radii.getY() * circle.cos(i), this.centreZ + this.radii.getZ() * circle.sin(i));
 		}
-		tessellator.draw();
+		sink.endLoop();
 	}
 	
-	protected void drawXYPlane(LineStyle line)
+	protected void drawXYPlane(LineSink sink, UnitCircle circle, int step)
 	{
-		Tessellator tessellator = Tessellator.getInstance();
-		BufferBuilder buf = tessellator.getBuffer();
-
 		int zRad = (int)Math.floor(this.radii.getZ());
-		for (int zBlock = -zRad; zBlock < zRad; zBlock++)
+		for (int zBlock = -(zRad / step) * step; zBlock < zRad; zBlock += step)
 		{
-			buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-			line.applyColour();
+			double slice = UnitCircle.slice(zBlock, this.radii.getZ());
+			double radX = this.radii.getX() * slice;
+			double radY = this.radii.getY() * slice;
 			
-			for (int i = 0; i <= SUBDIVISIONS; i++)
+			sink.beginLoop();
+			for (int i = 0; i < circle.segments(); i++)
 			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempX = this.radii.getX() * Math.sin(tempTheta) * Math.sin(Math.acos(zBlock / this.radii.getZ()));
-				double tempY = this.radii.getY() * Math.cos(tempTheta) * Math.sin(Math.acos(zBlock / this.radii.getZ()));
-				
-				buf.vertex(tempX, tempY, zBlock).next();
+				sink.loopVertex(this.centreX + radX * circle.sin(i), this.centreY + radY * circle.cos(i), this.centreZ + zBlock);
 			}
-			tessellator.draw();
+			sink.endLoop();
 		}
 		
-		buf.begin(GL11.GL_LINE_LOOP, VertexFormats.POSITION);
-		line.applyColour();
-		
-		for (int i = 0; i <= SUBDIVISIONS; i++)
+		sink.beginLoop();
+		for (int i = 0; i < circle.segments(); i++)
 		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempX = this.radii.getX() * Math.cos(tempTheta);
-			double tempY = this.radii.getY() * Math.sin(tempTheta);
-			
-			buf.vertex(tempX, tempY, 0.0).next();
+			sink.loopVertex(this.centreX + this.radii.getX() * circle.cos(i), this.centreY + this.radii.getY() * circle.sin(i), this.centreZ);
 		}
-		tessellator.draw();
+		sink.endLoop();
 	}
 }
@@ -0,0 +1,101 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import com.mumfrey.worldeditcui.render.LayeredGeometry;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.LineStyle;
+import com.mumfrey.worldeditcui.render.RenderStyle;
+
+/**
+ * Base class for shapes made of the same horizontal outline repeated at a
+ * number of heights. The outline is tessellated once and every layer is drawn
+ * from it with a vertical translation, so the cost of building the shape
+ * depends on the number of points in the outline rather than on its height.
+ */
+public abstract class RenderLayers extends RenderRegion
+{
+	private final LayeredGeometry layers = new LayeredGeometry();
+	private boolean outlineDirty = true, layersDirty = true;
+
+	protected RenderLayers(RenderStyle style)
+	{
+		super(style);
+	}
+
+	@Override
+	public void render(CUIRenderContext ctx)
+	{
+		this.update();
+
+		if (this.layers.cull(ctx.frustum()) == 0)
+		{
+			return;
+		}
+
+		for (LineStyle line : this.style.getLines())
+		{
+			if (line.matches(this.style.getRenderType()))
+			{
+				ctx.batcher().addLayers(line, 1.0F, this.layers);
+			}
+		}
+	}
+
+	/**
+	 * Emit the outline, in world coordinates at the specified height
+	 */
+	protected abstract void tessellateOutline(LineSink sink, double height);
+
+	/**
+	 * Add the heights of the layers to draw
+	 */
+	protected abstract void addLayers(LayeredGeometry layers);
+
+	/**
+	 * Mark the outline as stale so it is rebuilt before it is next drawn
+	 */
+	protected final void invalidateOutline()
+	{
+		this.outlineDirty = true;
+	}
+
+	/**
+	 * Mark the layer heights as stale so they are rebuilt before the shape is
+	 * next drawn
+	 */
+	protected final void invalidateLayers()
+	{
+		this.layersDirty = true;
+	}
+
+	/**
+	 * Emit every layer of the shape as plain lines
+	 */
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		this.update();
+
+		for (int i = 0; i < this.layers.getLayerCount(); i++)
+		{
+			this.tessellateOutline(sink, this.layers.getLayer(i));
+		}
+	}
+
+	private void update()
+	{
+		if (this.outlineDirty)
+		{
+			this.outlineDirty = false;
+			this.layers.getOutline().reset();
+			this.tessellateOutline(this.layers.getOutline(), 0.0);
+		}
+
+		if (this.layersDirty)
+		{
+			this.layersDirty = false;
+			this.layers.clearLayers();
+			this.addLayers(this.layers);
+		}
+	}
+}
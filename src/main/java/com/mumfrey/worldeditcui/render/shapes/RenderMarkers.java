@@ -0,0 +1,94 @@
+package com.mumfrey.worldeditcui.render.shapes;
+
+import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.RenderStyle;
+
+import java.util.Arrays;
+
+/**
+ * Draws any number of point markers as a single shape. Each marker is an
+ * axis-aligned box, emitted by scaling and translating the edges of one unit
+ * cube, so all the markers of a region end up in the same geometry and are
+ * queued for drawing together instead of one shape per point.
+ */
+public class RenderMarkers extends RenderRegion
+{
+	/**
+	 * Edges of the unit cube as pairs of corners, bit 0 of a corner selects
+	 * the max x, bit 1 the max y and bit 2 the max z
+	 */
+	private static final int[] CUBE_EDGES = {
+		0, 1,  1, 5,  5, 4,  4, 0, // bottom
+		2, 3,  3, 7,  7, 6,  6, 2, // top
+		0, 2,  1, 3,  5, 7,  4, 6, // verticals
+	};
+
+	/**
+	 * Marker extents, min x/y/z followed by max x/y/z
+	 */
+	private double[] extents = new double[6 * 16];
+	private int count;
+
+	public RenderMarkers(RenderStyle style)
+	{
+		super(style);
+	}
+
+	public int getCount()
+	{
+		return this.count;
+	}
+
+	public void clear()
+	{
+		if (this.count > 0)
+		{
+			this.count = 0;
+			this.invalidate();
+		}
+	}
+
+	public void add(double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		int offset = this.count * 6;
+		if (offset + 6 > this.extents.length)
+		{
+			this.extents = Arrays.copyOf(this.extents, this.extents.length * 2);
+		}
+
+		this.extents[offset] = x1;
+		this.extents[offset + 1] = y1;
+		this.extents[offset + 2] = z1;
+		this.extents[offset + 3] = x2;
+		this.extents[offset + 4] = y2;
+		this.extents[offset + 5] = z2;
+		this.count++;
+		this.invalidate();
+	}
+
+	@Override
+	public void render(CUIRenderContext ctx)
+	{
+		if (this.count > 0)
+		{
+			super.render(ctx);
+		}
+	}
+
+	@Override
+	protected void tessellate(LineSink sink)
+	{
+		double[] extents = this.extents;
+		for (int marker = 0, offset = 0; marker < this.count; marker++, offset += 6)
+		{
+			for (int edge = 0; edge < RenderMarkers.CUBE_EDGES.length; edge += 2)
+			{
+				int from = RenderMarkers.CUBE_EDGES[edge];
+				int to = RenderMarkers.CUBE_EDGES[edge + 1];
+				sink.line(extents[offset + ((from & 1) * 3)], extents[offset + 1 + ((from >> 1 & 1) * 3)], extents[offset + 2 + ((from >> 2 & 1) * 3)],
+						extents[offset + ((to & 1) * 3)], extents[offset + 1 + ((to >> 1 & 1) * 3)], extents[offset + 2 + ((to >> 2 & 1) * 3)]);
+			}
+		}
+	}
+}
@@ -1,21 +1,58 @@
 package com.mumfrey.worldeditcui.render.shapes;
 
 import com.mumfrey.worldeditcui.event.listeners.CUIRenderContext;
+import com.mumfrey.worldeditcui.render.GeometryBuffer;
+import com.mumfrey.worldeditcui.render.LineSink;
+import com.mumfrey.worldeditcui.render.LineStyle;
 import com.mumfrey.worldeditcui.render.RenderStyle;
 import com.mumfrey.worldeditcui.util.Observable;
 import com.mumfrey.worldeditcui.util.Observer;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Base class for region renderers
- * 
+ * Base class for region renderers. Shapes emit their lines once through a
+ * {@link LineSink} into a {@link GeometryBuffer} which is handed to the frame's
+ * {@link com.mumfrey.worldeditcui.render.LineBatcher} every frame, the
+ * geometry is only rebuilt after the shape is invalidated.
+ *
+ * <p>Large shapes are split into slices of consecutive vertices, which are
+ * culled against the view frustum individually. Shapes emit their geometry
+ * layer by layer so consecutive vertices are close together in the world.</p>
+ *
+ * <p>Shapes which can produce a lot of geometry opt in to being tessellated
+ * on a background thread by overriding {@link #isBackgroundTessellated}. The
+ * finished geometry is handed over through an atomic reference and picked up
+ * by the render thread on a later frame, until then the previous geometry
+ * keeps being drawn. The render thread never waits for a background build.</p>
+ *
  * @author Adam Mummery-Smith
  */
 public abstract class RenderRegion implements Observer
 {
 	protected static final double OFFSET = 0.001d; // to avoid z-fighting with blocks
 
+	private static final int SLICE_VERTICES = 2048;
+
+	private static final Executor TESSELLATOR = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "WorldEditCUI Tessellator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final Compiled EMPTY = new Compiled(0);
+
 	protected RenderStyle style;
-	
+
+	private Compiled compiled = RenderRegion.EMPTY;
+	private final AtomicReference<Compiled> ready = new AtomicReference<>();
+	private volatile int generation;
+	private boolean dirty = true;
+
 	protected RenderRegion(RenderStyle style)
 	{
 		this.style = style;
@@ -25,12 +62,177 @@ public abstract class RenderRegion implements Observer
 	{
 		this.style = style;
 	}
-	
-	public abstract void render(CUIRenderContext ctx);
-	
+
+	public void render(CUIRenderContext ctx)
+	{
+		this.compile();
+
+		Compiled compiled = this.compiled;
+		if (compiled.sliceCount == 0)
+		{
+			this.draw(ctx, compiled.geometry, 1.0F);
+			return;
+		}
+
+		for (int i = 0; i < compiled.sliceCount; i++)
+		{
+			this.draw(ctx, compiled.slices[i], 1.0F);
+		}
+	}
+
+	/**
+	 * Emit the lines making up this shape, in world coordinates. For shapes
+	 * which are tessellated in the background this is called on the worker
+	 * thread, and must only read state which is not changed without the
+	 * shape being invalidated.
+	 */
+	protected abstract void tessellate(LineSink sink);
+
+	/**
+	 * Get whether this shape should be tessellated on the background thread
+	 */
+	protected boolean isBackgroundTessellated()
+	{
+		return false;
+	}
+
+	/**
+	 * Keep drawing the geometry of the shape this one replaces until this
+	 * shape's own geometry is ready
+	 *
+	 * @param previous the shape being replaced, can be null
+	 */
+	public void continueFrom(RenderRegion previous)
+	{
+		if (previous != null && this.compiled == RenderRegion.EMPTY && this.isBackgroundTessellated())
+		{
+			this.compiled = previous.compiled;
+		}
+	}
+
+	/**
+	 * Mark the geometry as stale so that it is rebuilt before it is next drawn
+	 */
+	protected final void invalidate()
+	{
+		this.dirty = true;
+	}
+
+	/**
+	 * Rebuild the geometry if it has been invalidated, and pick up geometry
+	 * finished by the background thread
+	 *
+	 * @return true if the geometry to draw changed
+	 */
+	protected final boolean compile()
+	{
+		boolean changed = false;
+
+		Compiled ready = this.ready.getAndSet(null);
+		if (ready != null && ready.generation == this.generation)
+		{
+			this.compiled = ready;
+			changed = true;
+		}
+
+		if (this.dirty)
+		{
+			this.dirty = false;
+			int generation = ++this.generation;
+
+			if (this.isBackgroundTessellated())
+			{
+				RenderRegion.TESSELLATOR.execute(() -> this.build(generation));
+			}
+			else
+			{
+				if (this.compiled.owner != this)
+				{
+					this.compiled = new Compiled(generation);
+				}
+				this.compiled.build(this);
+				changed = true;
+			}
+		}
+
+		return changed;
+	}
+
+	private void build(int generation)
+	{
+		if (generation != this.generation)
+		{
+			return; // superseded before the worker got to it
+		}
+
+		Compiled compiled = new Compiled(generation);
+		compiled.build(this);
+		this.ready.set(compiled);
+	}
+
+	protected final void draw(CUIRenderContext ctx, GeometryBuffer geometry, float tint)
+	{
+		if (!ctx.frustum().isVisible(geometry))
+		{
+			return;
+		}
+
+		for (LineStyle line : this.style.getLines())
+		{
+			if (line.matches(this.style.getRenderType()))
+			{
+				ctx.batcher().add(line, tint, geometry);
+			}
+		}
+	}
+
 	@Override
 	public void notifyChanged(Observable<?> source)
 	{
-		
+		this.invalidate();
+	}
+
+	/**
+	 * Compiled geometry of a shape along with its slices. Geometry built in
+	 * the background is never modified once it has been handed over.
+	 */
+	private static final class Compiled
+	{
+		final int generation;
+		final GeometryBuffer geometry = new GeometryBuffer(GL11.GL_LINES);
+		GeometryBuffer[] slices = new GeometryBuffer[0];
+		int sliceCount;
+		RenderRegion owner;
+
+		Compiled(int generation)
+		{
+			this.generation = generation;
+		}
+
+		void build(RenderRegion shape)
+		{
+			this.owner = shape;
+			this.geometry.reset();
+			shape.tessellate(this.geometry);
+
+			int vertices = this.geometry.getVertexCount();
+			this.sliceCount = vertices > RenderRegion.SLICE_VERTICES ? (vertices + RenderRegion.SLICE_VERTICES - 1) / RenderRegion.SLICE_VERTICES : 0;
+			if (this.slices.length < this.sliceCount)
+			{
+				this.slices = Arrays.copyOf(this.slices, this.sliceCount);
+			}
+
+			for (int i = 0; i < this.sliceCount; i++)
+			{
+				if (this.slices[i] == null)
+				{
+					this.slices[i] = new GeometryBuffer(GL11.GL_LINES);
+				}
+
+				int first = i * RenderRegion.SLICE_VERTICES;
+				this.slices[i].reset();
+				this.slices[i].append(this.geometry, first, Math.min(RenderRegion.SLICE_VERTICES, vertices - first));
+			}
+		}
 	}
 }
@@ -4,17 +4,18 @@ import com.mumfrey.worldeditcui.render.points.PointCube;
 import com.mumfrey.worldeditcui.render.shapes.RenderRegion;
 
 /**
+ * The box around two points. The corners are updated in place when a point
+ * moves, so anything which keeps them must copy them.
+ *
  * @author Adam Mummery-Smith
  */
 public class BoundingBox extends Observable<RenderRegion> implements Observer
 {
 	private static final double OFF = 0.02;
 
-	private static final Vector3 MIN_VEC = new Vector3(BoundingBox.OFF, BoundingBox.OFF, BoundingBox.OFF);
-	private static final Vector3 MAX_VEC = new Vector3(BoundingBox.OFF + 1, BoundingBox.OFF + 1, BoundingBox.OFF + 1);
 
 	private final PointCube pc1, pc2;
-	private Vector3 min, max;
+	private final Vector3m min = new Vector3m(), max = new Vector3m();
 	
 	public BoundingBox(PointCube pc1, PointCube pc2)
 	{
@@ -63,7 +64,7 @@ public class BoundingBox extends Observable<RenderRegion> implements Observer
 	{
 		Vector3 p1 = this.pc1.getPoint();
 		Vector3 p2 = this.pc2.getPoint();
-		this.min = new Vector3(Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()), Math.min(p1.getZ(), p2.getZ())).subtract(BoundingBox.MIN_VEC);
-		this.max = new Vector3(Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()), Math.max(p1.getZ(), p2.getZ())).add(BoundingBox.MAX_VEC);
+		this.min.set(Math.min(p1.getX(), p2.getX()) - BoundingBox.OFF, Math.min(p1.getY(), p2.getY()) - BoundingBox.OFF, Math.min(p1.getZ(), p2.getZ()) - BoundingBox.OFF);
+		this.max.set(Math.max(p1.getX(), p2.getX()) + BoundingBox.OFF + 1, Math.max(p1.getY(), p2.getY()) + BoundingBox.OFF + 1, Math.max(p1.getZ(), p2.getZ()) + BoundingBox.OFF + 1);
 	}
 }
@@ -0,0 +1,108 @@
+package com.mumfrey.worldeditcui.util;
+
+/**
+ * Mutable world-space axis-aligned box, grown by including points or other
+ * boxes. A box can also be unbounded, for content whose extent is not known
+ * in advance and which must therefore always be considered visible.
+ */
+public final class Bounds
+{
+	private double minX, minY, minZ, maxX, maxY, maxZ;
+	private boolean empty = true;
+	private boolean unbounded;
+
+	public void clear()
+	{
+		this.empty = true;
+		this.unbounded = false;
+	}
+
+	public void setUnbounded()
+	{
+		this.empty = false;
+		this.unbounded = true;
+	}
+
+	/**
+	 * Get whether nothing has been included in the box
+	 */
+	public boolean isEmpty()
+	{
+		return this.empty;
+	}
+
+	public boolean isUnbounded()
+	{
+		return this.unbounded;
+	}
+
+	public void include(double x, double y, double z)
+	{
+		this.include(x, y, z, x, y, z);
+	}
+
+	public void include(double minX, double minY, double minZ, double maxX, double maxY, double maxZ)
+	{
+		if (this.unbounded)
+		{
+			return;
+		}
+
+		if (this.empty)
+		{
+			this.minX = minX;
+			this.minY = minY;
+			this.minZ = minZ;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.maxZ = maxZ;
+			this.empty = false;
+			return;
+		}
+
+		this.minX = Math.min(this.minX, minX);
+		this.minY = Math.min(this.minY, minY);
+		this.minZ = Math.min(this.minZ, minZ);
+		this.maxX = Math.max(this.maxX, maxX);
+		this.maxY = Math.max(this.maxY, maxY);
+		this.maxZ = Math.max(this.maxZ, maxZ);
+	}
+
+	/**
+	 * Include the block at the specified position
+	 */
+	public void includeBlock(Vector3 point)
+	{
+		this.include(point.getX(), point.getY(), point.getZ(), point.getX() + 1.0, point.getY() + 1.0, point.getZ() + 1.0);
+	}
+
+	public double getMinX()
+	{
+		return this.minX;
+	}
+
+	public double getMinY()
+	{
+		return this.minY;
+	}
+
+	public double getMinZ()
+	{
+		return this.minZ;
+	}
+
+	public double getMaxX()
+	{
+		return this.maxX;
+	}
+
+	public double getMaxY()
+	{
+		return this.maxY;
+	}
+
+	public double getMaxZ()
+	{
+		return this.maxZ;
+	}
+}
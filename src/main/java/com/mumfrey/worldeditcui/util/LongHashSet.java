@@ -0,0 +1,107 @@
+package com.mumfrey.worldeditcui.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs, for keys which would otherwise
+ * be boxed. Zero is used to mark empty slots and cannot be stored.
+ */
+public final class LongHashSet
+{
+	private static final int INITIAL_CAPACITY = 64;
+
+	private long[] keys = new long[LongHashSet.INITIAL_CAPACITY];
+	private int size;
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(this.keys, 0L);
+		this.size = 0;
+	}
+
+	public boolean contains(long key)
+	{
+		long[] keys = this.keys;
+		int mask = keys.length - 1;
+		for (int slot = LongHashSet.hash(key) & mask; keys[slot] != 0L; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Add a key to the set
+	 *
+	 * @return true if the key was not already in the set
+	 */
+	public boolean add(long key)
+	{
+		if (key == 0L)
+		{
+			throw new IllegalArgumentException("Cannot store 0 in a LongHashSet");
+		}
+
+		if ((this.size + 1) * 2 > this.keys.length)
+		{
+			this.grow();
+		}
+
+		if (!LongHashSet.insert(this.keys, key))
+		{
+			return false;
+		}
+
+		this.size++;
+		return true;
+	}
+
+	private void grow()
+	{
+		long[] keys = new long[this.keys.length * 2];
+		for (long key : this.keys)
+		{
+			if (key != 0L)
+			{
+				LongHashSet.insert(keys, key);
+			}
+		}
+		this.keys = keys;
+	}
+
+	private static boolean insert(long[] keys, long key)
+	{
+		int mask = keys.length - 1;
+		int slot = LongHashSet.hash(key) & mask;
+		for (; keys[slot] != 0L; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return false;
+			}
+		}
+
+		keys[slot] = key;
+		return true;
+	}
+
+	private static int hash(long key)
+	{
+		// Finaliser from MurmurHash3, spreads sequential keys across the table
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int)key;
+	}
+}
@@ -0,0 +1,120 @@
+package com.mumfrey.worldeditcui.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive longs to ints, for keys and values
+ * which would otherwise be boxed. Zero is used to mark empty slots and cannot
+ * be used as a key.
+ */
+public final class LongIntHashMap
+{
+	private static final int INITIAL_CAPACITY = 64;
+
+	private long[] keys = new long[LongIntHashMap.INITIAL_CAPACITY];
+	private int[] values = new int[LongIntHashMap.INITIAL_CAPACITY];
+	private int size;
+
+	public int size()
+	{
+		return this.size;
+	}
+
+	public void clear()
+	{
+		if (this.size > 0)
+		{
+			Arrays.fill(this.keys, 0L);
+			this.size = 0;
+		}
+	}
+
+	/**
+	 * Get the value for a key
+	 *
+	 * @param key key to look up
+	 * @param defaultValue value to return if the key is not in the map
+	 */
+	public int get(long key, int defaultValue)
+	{
+		long[] keys = this.keys;
+		int mask = keys.length - 1;
+		for (int slot = LongIntHashMap.hash(key) & mask; keys[slot] != 0L; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return this.values[slot];
+			}
+		}
+
+		return defaultValue;
+	}
+
+	/**
+	 * Set the value for a key, replacing any previous value
+	 */
+	public void put(long key, int value)
+	{
+		if (key == 0L)
+		{
+			throw new IllegalArgumentException("Cannot use 0 as a key in a LongIntHashMap");
+		}
+
+		if ((this.size + 1) * 2 > this.keys.length)
+		{
+			this.grow();
+		}
+
+		if (LongIntHashMap.insert(this.keys, this.values, key, value))
+		{
+			this.size++;
+		}
+	}
+
+	private void grow()
+	{
+		long[] keys = new long[this.keys.length * 2];
+		int[] values = new int[keys.length];
+		for (int slot = 0; slot < this.keys.length; slot++)
+		{
+			if (this.keys[slot] != 0L)
+			{
+				LongIntHashMap.insert(keys, values, this.keys[slot], this.values[slot]);
+			}
+		}
+		this.keys = keys;
+		this.values = values;
+	}
+
+	/**
+	 * @return true if the key was not already in the map
+	 */
+	private static boolean insert(long[] keys, int[] values, long key, int value)
+	{
+		int mask = keys.length - 1;
+		int slot = LongIntHashMap.hash(key) & mask;
+		for (; keys[slot] != 0L; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				values[slot] = value;
+				return false;
+			}
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+		return true;
+	}
+
+	private static int hash(long key)
+	{
+		// Finaliser from MurmurHash3, spreads sequential keys across the table
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int)key;
+	}
+}
@@ -0,0 +1,96 @@
+package com.mumfrey.worldeditcui.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Precomputed sine and cosine tables for a circle divided into a fixed number
+ * of segments, shared between all the curved shapes using the same number of
+ * segments. Together with {@link #slice} this reduces vertex generation for
+ * rings and ellipses to multiply-adds.
+ */
+public final class UnitCircle
+{
+	private static final int MAX_CACHED_SEGMENTS = 1024;
+
+	private static final AtomicReferenceArray<UnitCircle> CACHE = new AtomicReferenceArray<>(UnitCircle.MAX_CACHED_SEGMENTS + 1);
+
+	private final int segments;
+	private final double[] cos, sin;
+
+	private UnitCircle(int segments)
+	{
+		this.segments = segments;
+		this.cos = new double[segments];
+		this.sin = new double[segments];
+
+		double step = Math.PI * 2.0 / segments;
+		for (int i = 0; i < segments; i++)
+		{
+			this.cos[i] = Math.cos(i * step);
+			this.sin[i] = Math.sin(i * step);
+		}
+	}
+
+	/**
+	 * Get the table for the specified number of segments
+	 */
+	public static UnitCircle of(int segments)
+	{
+		if (segments < 1)
+		{
+			throw new IllegalArgumentException("Invalid segment count " + segments);
+		}
+
+		if (segments > UnitCircle.MAX_CACHED_SEGMENTS)
+		{
+			return new UnitCircle(segments);
+		}
+
+		UnitCircle circle = UnitCircle.CACHE.get(segments);
+		if (circle == null)
+		{
+			circle = new UnitCircle(segments);
+			if (!UnitCircle.CACHE.compareAndSet(segments, null, circle))
+			{
+				circle = UnitCircle.CACHE.get(segments);
+			}
+		}
+
+		return circle;
+	}
+
+	public int segments()
+	{
+		return this.segments;
+	}
+
+	/**
+	 * Cosine of the angle of the i'th vertex
+	 */
+	public double cos(int i)
+	{
+		return this.cos[i];
+	}
+
+	/**
+	 * Sine of the angle of the i'th vertex
+	 */
+	public double sin(int i)
+	{
+		return this.sin[i];
+	}
+
+	/**
+	 * Get the relative radius of the slice through a unit sphere (or circle)
+	 * at the specified distance from its centre, ie. cos(asin(offset / radius))
+	 * computed without the trigonometric functions.
+	 *
+	 * @return the relative slice radius, or NaN if the offset lies outside the
+	 *      radius
+	 */
+	public static double slice(double offset, double radius)
+	{
+		double ratio = offset / radius;
+		return Math.sqrt(1.0 - ratio * ratio);
+	}
+}
@@ -0,0 +1,40 @@
+package com.mumfrey.worldeditcui.util;
+
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * A version of Vector3 that can be modified. Used for state which is updated
+ * every frame, must not be handed to anything which keeps hold of it.
+ */
+public class Vector3m extends Vector3
+{
+
+	public Vector3m()
+	{
+	}
+
+	/**
+	 * Sets the X, Y and Z coordinates
+	 *
+	 * @param x The X coordinate
+	 * @param y The Y coordinate
+	 * @param z The Z coordinate
+	 */
+	public Vector3m set(double x, double y, double z)
+	{
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	/**
+	 * Sets the coordinates from Minecraft's 3D Vector class instance
+	 *
+	 * @param nativeVector Native Vector
+	 */
+	public Vector3m set(Vec3d nativeVector)
+	{
+		return this.set(nativeVector.getX(), nativeVector.getY(), nativeVector.getZ());
+	}
+}
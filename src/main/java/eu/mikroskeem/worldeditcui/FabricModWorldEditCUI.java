@@ -3,6 +3,11 @@ package eu.mikroskeem.worldeditcui;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mumfrey.worldeditcui.WorldEditCUI;
 import com.mumfrey.worldeditcui.config.CUIConfiguration;
+import com.mumfrey.worldeditcui.debug.ProfilerOverlay;
+import com.mumfrey.worldeditcui.event.CUIBinaryProtocol;
+import com.mumfrey.worldeditcui.event.CUIEvent;
+import com.mumfrey.worldeditcui.event.CUIEventQueue;
+import com.mumfrey.worldeditcui.event.CUIEventRingBuffer;
 import com.mumfrey.worldeditcui.event.listeners.CUIListenerChannel;
 import com.mumfrey.worldeditcui.event.listeners.CUIListenerWorldRender;
 import eu.mikroskeem.worldeditcui.mixins.MinecraftClientAccess;
@@ -14,6 +19,7 @@ import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.fabricmc.fabric.api.networking.v1.PacketSender;
@@ -22,12 +28,14 @@ import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.options.KeyBinding;
 import net.minecraft.client.util.InputUtil;
+import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.world.World;
 import org.lwjgl.glfw.GLFW;
 import org.spongepowered.asm.mixin.MixinEnvironment;
 
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 /**
  * Fabric mod entrypoint
@@ -48,12 +56,17 @@ public final class FabricModWorldEditCUI implements ModInitializer {
     private WorldEditCUI controller;
     private CUIListenerWorldRender worldRenderListener;
     private CUIListenerChannel channelListener;
+    private CUIEventRingBuffer inboundEvents;
+    private Consumer<CUIEvent> inboundSink;
+    private CUIEventQueue eventQueue;
+    private ProfilerOverlay profilerOverlay;
 
     private World lastWorld;
     private ClientPlayerEntity lastPlayer;
 
     private boolean visible = true;
     private int delayedHelo = 0;
+    private long lastDroppedEvents = 0;
 
     /**
      * Register a key binding
@@ -81,6 +94,7 @@ public final class FabricModWorldEditCUI implements ModInitializer {
         ClientLifecycleEvents.CLIENT_STARTED.register(this::onGameInitDone);
         CUINetworking.subscribeToCuiPacket(this::onPluginMessage);
         ClientPlayConnectionEvents.JOIN.register(this::onJoinGame);
+        ClientPlayConnectionEvents.DISCONNECT.register(this::onDisconnect);
         WorldRenderEvents.AFTER_TRANSLUCENT.register(ctx -> {
             if (ctx.advancedTranslucency()) {
                 try {
@@ -99,13 +113,34 @@ public final class FabricModWorldEditCUI implements ModInitializer {
                 OptifineHooks.doOptifineAwareRender(ctx, this::onPostRenderEntities);
             }
         });
+        HudRenderCallback.EVENT.register(this::onHudRender);
     }
 
     private void onTick(MinecraftClient mc) {
         CUIConfiguration config = controller.getConfiguration();
+
         boolean inGame = mc.player != null;
         boolean clock = ((MinecraftClientAccess) mc).getRenderTickCounter().tickDelta > 0;
 
+        if (inGame && clock && (mc.world != this.lastWorld || mc.player != this.lastPlayer)) {
+            this.lastWorld = mc.world;
+            this.lastPlayer = mc.player;
+
+            // Anything still queued was sent for the old world, the handshake asks for the selection again
+            this.discardEvents();
+            controller.getDebugger().debug("World change detected, sending new handshake");
+            controller.clear();
+            this.helo(mc.getNetworkHandler());
+            this.delayedHelo = FabricModWorldEditCUI.DELAYED_HELO_TICKS;
+            if (config.isPromiscuous()) {
+                mc.player.sendChatMessage("/we cui"); //Tricks WE to send the current selection
+            }
+        }
+
+        this.inboundEvents.drainTo(this.eventQueue, config.getEventsPerTick());
+        this.eventQueue.flush();
+        this.reportDroppedEvents();
+
         if (inGame && mc.currentScreen == null) {
             while (this.keyBindToggleUI.wasPressed()) {
                 this.visible = !this.visible;
@@ -126,26 +161,23 @@ public final class FabricModWorldEditCUI implements ModInitializer {
             }
         }
 
-        if (inGame && clock && controller != null) {
-            if (mc.world != this.lastWorld || mc.player != this.lastPlayer) {
-                this.lastWorld = mc.world;
-                this.lastPlayer = mc.player;
-
-                controller.getDebugger().debug("World change detected, sending new handshake");
-                controller.clear();
+        if (inGame && clock && this.delayedHelo > 0) {
+            this.delayedHelo--;
+            if (this.delayedHelo == 0) {
                 this.helo(mc.getNetworkHandler());
-                this.delayedHelo = FabricModWorldEditCUI.DELAYED_HELO_TICKS;
-                if (mc.player != null && config.isPromiscuous()) {
-                    mc.player.sendChatMessage("/we cui"); //Tricks WE to send the current selection
-                }
             }
+        }
+    }
 
-            if (this.delayedHelo > 0) {
-                this.delayedHelo--;
-                if (this.delayedHelo == 0) {
-                    this.helo(mc.getNetworkHandler());
-                }
-            }
+    /**
+     * Throw away the events received but not yet applied, they belong to a
+     * world the player has left. Client thread only.
+     */
+    private void discardEvents() {
+        int discarded = this.inboundEvents.discard();
+        this.eventQueue.discard();
+        if (discarded > 0) {
+            controller.getDebugger().debug(String.format("Discarded %d events received for the previous world", discarded));
         }
     }
 
@@ -153,8 +185,8 @@ public final class FabricModWorldEditCUI implements ModInitializer {
         try {
             int readableBytes = data.readableBytes();
             if (readableBytes > 0) {
-                String stringPayload = data.toString(0, data.readableBytes(), StandardCharsets.UTF_8);
-                client.execute(() -> channelListener.onMessage(stringPayload));
+                // Decoded here on the network thread, only applying the events happens on the client thread
+                this.channelListener.decode(data, this.inboundSink);
             } else {
                 getController().getDebugger().debug("Warning, invalid (zero length) payload received from server");
             }
@@ -163,11 +195,26 @@ public final class FabricModWorldEditCUI implements ModInitializer {
         }
     }
 
+    private void reportDroppedEvents() {
+        long dropped = this.inboundEvents.getDropped();
+        if (dropped != this.lastDroppedEvents) {
+            controller.getDebugger().debug(String.format("Event queue full, %d events dropped (%d coalesced, %d received, peak depth %d of %d)",
+                    dropped - this.lastDroppedEvents, this.inboundEvents.getCoalesced(), this.inboundEvents.getEnqueued(),
+                    this.inboundEvents.getPeakDepth(), this.inboundEvents.getCapacity()));
+            this.lastDroppedEvents = dropped;
+        }
+    }
+
     public void onGameInitDone(MinecraftClient client) {
         this.controller = new WorldEditCUI();
         this.controller.initialise(client);
         this.worldRenderListener = new CUIListenerWorldRender(this.controller, client);
         this.channelListener = new CUIListenerChannel(this.controller);
+        CUIConfiguration config = this.controller.getConfiguration();
+        this.inboundEvents = new CUIEventRingBuffer(config.getEventQueueSize(), config.getEventOverflow());
+        this.inboundSink = this.inboundEvents::offer;
+        this.eventQueue = new CUIEventQueue(this.controller.getDispatcher());
+        this.profilerOverlay = new ProfilerOverlay(this.controller.getDebugger().getProfiler());
     }
 
     public void onJoinGame(final ClientPlayNetworkHandler handler, final PacketSender sender, final MinecraftClient client) {
@@ -176,9 +223,25 @@ public final class FabricModWorldEditCUI implements ModInitializer {
         this.helo(handler);
     }
 
+    public void onDisconnect(final ClientPlayNetworkHandler handler, final MinecraftClient client) {
+        // The ring buffer is only emptied from the client thread
+        client.execute(() -> {
+            this.discardEvents();
+            this.lastWorld = null;
+            this.lastPlayer = null;
+            this.delayedHelo = 0;
+        });
+    }
+
     public void onPostRenderEntities(final WorldRenderContext ctx) {
         if (this.visible) {
-            this.worldRenderListener.onRender(ctx.matrixStack(), ctx.tickDelta());
+            this.worldRenderListener.onRender(ctx.matrixStack(), ctx.projectionMatrix(), ctx.tickDelta());
+        }
+    }
+
+    private void onHudRender(final MatrixStack matrices, final float tickDelta) {
+        if (this.visible && this.controller != null && this.controller.getConfiguration().isShowProfiler()) {
+            this.profilerOverlay.render(MinecraftClient.getInstance(), matrices);
         }
     }
 
@@ -186,6 +249,14 @@ public final class FabricModWorldEditCUI implements ModInitializer {
         String message = "v|" + WorldEditCUI.PROTOCOL_VERSION;
         ByteBuf buffer = Unpooled.copiedBuffer(message, StandardCharsets.UTF_8);
         CUINetworking.send(handler, new PacketByteBuf(buffer));
+
+        // Servers which do not know the binary protocol ignore the offer and keep sending text
+        boolean binary = controller.getConfiguration().isBinaryProtocol();
+        this.channelListener.setBinaryProtocol(binary);
+        if (binary) {
+            ByteBuf offer = Unpooled.copiedBuffer(CUIBinaryProtocol.CAPABILITY_MESSAGE, StandardCharsets.UTF_8);
+            CUINetworking.send(handler, new PacketByteBuf(offer));
+        }
     }
 
     public WorldEditCUI getController()